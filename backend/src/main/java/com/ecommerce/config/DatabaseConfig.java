@@ -2,33 +2,103 @@ package com.ecommerce.config;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class DatabaseConfig {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.datasource.url:jdbc:postgresql://localhost:5433/ecommerce}")
+    private String url;
+
+    @Value("${spring.datasource.username:postgres}")
+    private String username;
+
+    @Value("${spring.datasource.password:postgres}")
+    private String password;
+
+    @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
+    private String driverClassName;
+
+    // URLs de réplicas de solo lectura separadas por coma; vacío = todo va al primario
+    @Value("${app.datasource.replica-urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica-max-lag-ms:5000}")
+    private long replicaMaxLagMillis;
+
+    @Value("${app.datasource.replica-lag-query:SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END}")
+    private String replicaLagQuery;
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource routingDataSource() {
+        HikariDataSource primary = createPool("ecommerce-pool", url, false);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            if (!replicaUrls.get(i).isBlank()) {
+                replicas.add(createPool("ecommerce-replica-" + i, replicaUrls.get(i).trim(), true));
+            }
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, replicaLagQuery, replicaMaxLagMillis);
+    }
+
     @Bean
     @Primary
-    public DataSource dataSource() {
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        // El proxy difiere la conexión real hasta el primer statement, cuando ya se sabe si la transacción es readOnly
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Conteo de consultas y tiempo de base por request (ver QueryStatsFilter)
+    @Bean
+    public HibernatePropertiesCustomizer queryStatsCustomizer() {
+        return properties -> {
+            properties.put("hibernate.session_factory.statement_inspector", new RequestQueryStats.Inspector());
+            properties.put("hibernate.session.events.auto", RequestQueryStats.TimingListener.class.getName());
+        };
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica-check-interval-ms:2000}")
+    public void checkReplicas() {
+        routingDataSource().refreshReplicaHealth();
+    }
+
+    private HikariDataSource createPool(String poolName, String jdbcUrl, boolean readOnly) {
         HikariConfig config = new HikariConfig();
-        config.setDriverClassName("org.postgresql.Driver");
+        config.setDriverClassName(driverClassName);
         // Configurar para usar zona horaria de Argentina
-        config.setJdbcUrl("jdbc:postgresql://localhost:5433/ecommerce");
-        config.setUsername("postgres");
-        config.setPassword("postgres");
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setReadOnly(readOnly);
         
         // Configuraciones de conexión
         config.setConnectionTimeout(20000);
         config.setMaximumPoolSize(5);
-        config.setPoolName("ecommerce-pool");
+        config.setPoolName(poolName);
+        // Métricas del pool (hikaricp_connections_*) etiquetadas con el nombre del pool
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
         
         // Propiedades para zona horaria de Argentina
-        config.addDataSourceProperty("ApplicationName", "ecommerce-app");
-        config.addDataSourceProperty("assumeMinServerVersion", "9.0");
+        if (driverClassName.contains("postgresql")) {
+            config.addDataSourceProperty("ApplicationName", "ecommerce-app");
+            config.addDataSourceProperty("assumeMinServerVersion", "9.0");
+        }
         
         return new HikariDataSource(config);
     }
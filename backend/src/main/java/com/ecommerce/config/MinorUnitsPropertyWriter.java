@@ -0,0 +1,92 @@
+package com.ecommerce.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+// Propiedades con @JsonSerialize(using = MinorUnitsSerializer.class) sobre un getter long: un
+// serializer propio hace que Jackson (y Blackbird) lean el valor con reflexión y lo pasen como Long,
+// un objeto por monto. Este writer llama al getter con una lambda que devuelve el long y lo escribe
+// directo; la moneda sale del mismo bean.
+public class MinorUnitsPropertyWriter extends BeanPropertyWriter {
+
+    private final transient ToLongFunction<Object> getter;
+
+    private MinorUnitsPropertyWriter(BeanPropertyWriter base, ToLongFunction<Object> getter) {
+        super(base);
+        this.getter = getter;
+    }
+
+    private MinorUnitsPropertyWriter(MinorUnitsPropertyWriter base, PropertyName name) {
+        super(base, name);
+        this.getter = base.getter;
+    }
+
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("MinorUnits");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                for (int i = 0; i < beanProperties.size(); i++) {
+                    BeanPropertyWriter writer = beanProperties.get(i);
+                    JsonSerializer<?> serializer = writer.getSerializer();
+                    if (writer.getClass() == BeanPropertyWriter.class
+                            && serializer instanceof MinorUnitsSerializer
+                            && writer.getMember().getMember() instanceof Method method
+                            && method.getReturnType() == long.class) {
+                        beanProperties.set(i, new MinorUnitsPropertyWriter(writer, getter(method)));
+                    }
+                }
+                return beanProperties;
+            }
+        });
+        return module;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ToLongFunction<Object> getter(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(lookup, "applyAsLong",
+                    MethodType.methodType(ToLongFunction.class), MethodType.methodType(long.class, Object.class),
+                    handle, handle.type());
+            return (ToLongFunction<Object>) site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("No se pudo acceder al monto " + method, e);
+        }
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new MinorUnitsPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        long minorUnits = getter.applyAsLong(bean);
+        gen.writeFieldName(_name);
+        MinorUnitsSerializer.write(minorUnits, bean, gen);
+    }
+
+    @Override
+    public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        MinorUnitsSerializer.write(getter.applyAsLong(bean), bean, gen);
+    }
+}
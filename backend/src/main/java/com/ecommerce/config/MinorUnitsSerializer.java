@@ -0,0 +1,62 @@
+package com.ecommerce.config;
+
+import com.ecommerce.dto.HasCurrency;
+import com.ecommerce.model.Money;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// Escribe un monto en unidades menores como número decimal ("price": 45000 o 12.5 en vez de 1250)
+// sin pasar por BigDecimal ni double: los montos enteros van como long y el resto se arma en un
+// buffer por hilo. La moneda sale del DTO que se está serializando. En los DTOs, MinorUnitsPropertyWriter
+// reemplaza este serializer para leer el long sin boxing; este queda para cualquier otro uso.
+public class MinorUnitsSerializer extends StdSerializer<Long> {
+
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[24]);
+
+    public MinorUnitsSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(value, gen.getCurrentValue(), gen);
+    }
+
+    static void write(long minorUnits, Object owner, JsonGenerator gen) throws IOException {
+        int digits = Money.fractionDigits(owner instanceof HasCurrency dto ? dto.getCurrency() : null);
+        long unit = POWERS_OF_TEN[digits];
+        if (minorUnits % unit == 0) {
+            gen.writeNumber(minorUnits / unit);
+        } else if (!gen.canWriteFormattedNumbers()) {
+            // CBOR/Smile codifican el decimal en binario
+            gen.writeNumber(BigDecimal.valueOf(minorUnits, digits));
+        } else {
+            char[] buffer = BUFFER.get();
+            gen.writeNumber(buffer, 0, format(Math.abs(minorUnits), minorUnits < 0, digits, buffer));
+        }
+    }
+
+    private static int format(long magnitude, boolean negative, int digits, char[] buffer) {
+        int position = buffer.length;
+        for (int i = 0; i < digits; i++) {
+            buffer[--position] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+        buffer[--position] = '.';
+        do {
+            buffer[--position] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        } while (magnitude > 0);
+        if (negative) {
+            buffer[--position] = '-';
+        }
+        int length = buffer.length - position;
+        System.arraycopy(buffer, position, buffer, 0, length);
+        return length;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecommerce.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Cuenta consultas y tiempo de base por request y avisa cuando se pasan los umbrales.
+// En dev además devuelve X-Query-Count y Server-Timing (requiere bufferear la respuesta).
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryStatsFilter.class);
+
+    @Value("${app.query-stats.max-queries:15}")
+    private int maxQueries;
+
+    @Value("${app.query-stats.max-db-millis:200}")
+    private long maxDbMillis;
+
+    @Value("${app.query-stats.expose-headers:false}")
+    private boolean exposeHeaders;
+
+    // Los streams (SSE, NDJSON) y la API reactiva responden de forma asíncrona y no deben pasar por el
+    // buffer de ContentCachingResponseWrapper; además sus consultas no pasan por Hibernate
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String accept = request.getHeader("Accept");
+        return (accept != null && (accept.contains("text/event-stream") || accept.contains("application/x-ndjson")))
+                || request.getRequestURI().endsWith("/stream")
+                || request.getRequestURI().startsWith("/api/reactive/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestQueryStats stats = RequestQueryStats.begin();
+        ContentCachingResponseWrapper wrapper = exposeHeaders ? new ContentCachingResponseWrapper(response) : null;
+        try {
+            filterChain.doFilter(request, wrapper != null ? wrapper : response);
+        } finally {
+            RequestQueryStats.end();
+            long totalMillis = (System.nanoTime() - start) / 1_000_000;
+            if (stats.getQueryCount() > maxQueries || stats.getDbMillis() > maxDbMillis) {
+                log.warn("request_query_threshold_exceeded method={} uri={} status={} queries={} db_ms={} total_ms={} max_repeats={} repeated_sql=\"{}\"",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), stats.getQueryCount(),
+                        stats.getDbMillis(), totalMillis, stats.getMaxRepeats(), stats.getMostRepeatedSql());
+            }
+            if (wrapper != null) {
+                wrapper.setHeader("X-Query-Count", String.valueOf(stats.getQueryCount()));
+                wrapper.setHeader("Server-Timing", String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d queries\"",
+                        stats.getDbMillisPrecise(), stats.getQueryCount()));
+                wrapper.copyBodyToResponse();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+// Pool R2DBC para la API de catálogo no bloqueante (/api/reactive). Se arma a mano y la
+// autoconfiguración de R2DBC está excluida para no sumar un segundo transaction manager:
+// las escrituras siguen pasando por JPA.
+@Configuration
+public class ReactiveDatabaseConfig {
+
+    @Value("${app.r2dbc.url:r2dbc:postgresql://localhost:5433/ecommerce}")
+    private String url;
+
+    @Value("${spring.datasource.username:postgres}")
+    private String username;
+
+    @Value("${spring.datasource.password:postgres}")
+    private String password;
+
+    @Value("${app.r2dbc.pool.initial-size:2}")
+    private int initialSize;
+
+    @Value("${app.r2dbc.pool.max-size:10}")
+    private int maxSize;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool reactiveConnectionFactory() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionPoolConfiguration configuration = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("ecommerce-r2dbc")
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build();
+        return new ConnectionPool(configuration);
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionPool reactiveConnectionFactory) {
+        return DatabaseClient.create(reactiveConnectionFactory);
+    }
+}
@@ -0,0 +1,98 @@
+package com.ecommerce.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.BaseSessionEventListener;
+
+// Conteo de consultas y tiempo de base de datos del request en curso (por hilo).
+// Fuera de un request (tareas programadas, arranque) no se registra nada.
+public final class RequestQueryStats {
+
+    private static final ThreadLocal<RequestQueryStats> CURRENT = new ThreadLocal<>();
+
+    private int queryCount;
+    private long dbNanos;
+    private String lastSql;
+    private int repeats;
+    private int maxRepeats;
+    private String mostRepeatedSql;
+
+    public static RequestQueryStats begin() {
+        RequestQueryStats stats = new RequestQueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public int getQueryCount() { return queryCount; }
+
+    public long getDbMillis() { return dbNanos / 1_000_000; }
+
+    public double getDbMillisPrecise() { return dbNanos / 1_000_000.0; }
+
+    // Cantidad de veces seguidas que se ejecutó la misma sentencia (típico de N+1)
+    public int getMaxRepeats() { return maxRepeats; }
+
+    public String getMostRepeatedSql() { return mostRepeatedSql; }
+
+    private void onStatement(String sql) {
+        queryCount++;
+        if (sql.equals(lastSql)) {
+            repeats++;
+        } else {
+            lastSql = sql;
+            repeats = 1;
+        }
+        if (repeats > maxRepeats) {
+            maxRepeats = repeats;
+            mostRepeatedSql = sql;
+        }
+    }
+
+    // Registrado como hibernate.session_factory.statement_inspector
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            RequestQueryStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.onStatement(sql);
+            }
+            return sql;
+        }
+    }
+
+    // Registrado como hibernate.session.events.auto; Hibernate crea una instancia por sesión
+    public static class TimingListener extends BaseSessionEventListener {
+        private long statementStart;
+        private long batchStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statementStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            addTime(System.nanoTime() - statementStart);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batchStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            addTime(System.nanoTime() - batchStart);
+        }
+
+        private static void addTime(long nanos) {
+            RequestQueryStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.dbNanos += nanos;
+            }
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
-import com.ecommerce.service.CartService;
+import com.ecommerce.service.CartWriteBehindService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,12 +18,20 @@ import java.util.List;
 public class CartController {
 
     @Autowired
-    private CartService cartService;
+    private CartWriteBehindService cartService;
 
     @GetMapping
     public ResponseEntity<List<CartItemDTO>> getCart(Authentication authentication) {
         String email = authentication.getName();
-        List<CartItemDTO> cartItems = cartService.getCartByUserEmail(email);
+        List<CartItemDTO> cartItems = cartService.getCart(email);
+        return ResponseEntity.ok(cartItems);
+    }
+
+    @PutMapping
+    public ResponseEntity<List<CartItemDTO>> replaceCart(@Valid @RequestBody List<@NotNull(message = "La línea del carrito es obligatoria") @Valid CartLineDTO> items,
+                                                         Authentication authentication) {
+        String email = authentication.getName();
+        List<CartItemDTO> cartItems = cartService.replaceCart(email, items);
         return ResponseEntity.ok(cartItems);
     }
 
@@ -0,0 +1,38 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.security.JwtKeyStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
+
+// Claves públicas para que gateways y otros servicios verifiquen los JWT sin llamar a este backend.
+// El documento solo cambia al reiniciar con otras claves: se cachea y se revalida por ETag.
+@RestController
+public class JwksController {
+
+    @Autowired
+    private JwtKeyStore keyStore;
+
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks(WebRequest request) {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+        if (request.checkNotModified(keyStore.getJwksEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(keyStore.getJwksEtag())
+                .body(keyStore.getJwks());
+    }
+}
@@ -1,29 +1,85 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.config.JacksonConfig;
 import com.ecommerce.dto.CreateProductDTO;
+import com.ecommerce.dto.FacetCountsDTO;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.SuggestionDTO;
+import com.ecommerce.dto.TopProductDTO;
 import com.ecommerce.dto.UpdateProductDTO;
+import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.service.ProductService;
+import com.ecommerce.service.ProductStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "http://localhost:3000")
 public class ProductController {
 
+    private static final Set<String> PRODUCT_FIELDS =
+            Set.of("id", "name", "description", "price", "currency", "stock", "category", "imageUrl");
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductStreamService productStreamService;
+
+    // ?fields=id,name,price,imageUrl devuelve solo esas propiedades (el listado no necesita las descripciones)
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
+    public ResponseEntity<MappingJacksonValue> getAllProducts(@RequestParam(required = false) String fields) {
         List<ProductDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+        MappingJacksonValue body = new MappingJacksonValue(products);
+        if (fields != null && !fields.isBlank()) {
+            body.setFilters(JacksonConfig.onlyFields(parseFields(fields)));
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetCountsDTO> getFacetCounts(@RequestParam(required = false) String category,
+                                                         @RequestParam(required = false) String priceRange,
+                                                         @RequestParam(required = false) Boolean inStock) {
+        FacetCountsDTO facets = productService.getFacetCounts(category, priceRange, inStock);
+        return ResponseEntity.ok(facets);
+    }
+
+    // Autocompletado del buscador: productos y categorías cuyo nombre tiene una palabra que empieza con el prefijo
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "8") int limit) {
+        List<SuggestionDTO> suggestions = productService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    // Más vendidos en la ventana: 1h (tendencia), 24h o 7d
+    @GetMapping("/top")
+    public ResponseEntity<List<TopProductDTO>> getTopProducts(@RequestParam(defaultValue = "24h") String window,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        List<TopProductDTO> top = productService.getTopProducts(window, limit);
+        return ResponseEntity.ok(top);
+    }
+
+    // SSE con los cambios de precio/stock; ?ids=1,2 limita el stream a esos productos
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamProductChanges(@RequestParam(required = false) List<Long> ids,
+                                     HttpServletRequest request, HttpServletResponse response) throws IOException {
+        productStreamService.subscribe(ids == null ? Set.of() : new HashSet<>(ids), request, response);
     }
 
     @GetMapping("/{id}")
@@ -32,6 +88,14 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    // "Comprados juntos", de más a menos relacionado
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ProductDTO>> getRelatedProducts(@PathVariable Long id,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        List<ProductDTO> related = productService.getRelatedProducts(id, limit);
+        return ResponseEntity.ok(related);
+    }
+
     @PostMapping
     public ResponseEntity<ProductDTO> createProduct(@Valid @RequestBody CreateProductDTO createProductDTO) {
         ProductDTO createdProduct = productService.createProduct(createProductDTO);
@@ -50,4 +114,16 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    private Set<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!PRODUCT_FIELDS.contains(name)) {
+                throw new BadRequestException("Campo desconocido: " + name);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
 }
@@ -0,0 +1,41 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.dto.CategoryDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.service.ReactiveCatalogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Variante de solo lectura de /api/products y /api/categories sobre R2DBC.
+// Con Accept: application/x-ndjson los listados se envían elemento a elemento a medida que
+// el cliente los consume; con JSON (u otro formato negociado) se devuelve el arreglo completo.
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveCatalogController {
+
+    @Autowired
+    private ReactiveCatalogService reactiveCatalogService;
+
+    @GetMapping("/products")
+    public Flux<ProductDTO> getAllProducts() {
+        return reactiveCatalogService.getAllProducts();
+    }
+
+    @GetMapping("/products/{id}")
+    public Mono<ProductDTO> getProductById(@PathVariable Long id) {
+        return reactiveCatalogService.getProductById(id);
+    }
+
+    @GetMapping("/categories")
+    public Flux<CategoryDTO> getAllCategories() {
+        return reactiveCatalogService.getAllCategories();
+    }
+
+    @GetMapping("/categories/{id}")
+    public Mono<CategoryDTO> getCategoryById(@PathVariable String id) {
+        return reactiveCatalogService.getCategoryById(id);
+    }
+}
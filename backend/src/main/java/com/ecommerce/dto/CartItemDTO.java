@@ -1,18 +1,33 @@
 package com.ecommerce.dto;
 
-public class CartItemDTO {
+import com.ecommerce.config.MinorUnitsSerializer;
+import com.ecommerce.model.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonPropertyOrder({"id", "product", "quantity", "subtotal"})
+public class CartItemDTO implements HasCurrency {
     private Long id;
     private ProductDTO product;
     private Integer quantity;
-    private Double subtotal;
+    private long subtotalCents;
 
     public CartItemDTO() {}
 
-    public CartItemDTO(Long id, ProductDTO product, Integer quantity, Double subtotal) {
+    public CartItemDTO(Long id, ProductDTO product, Integer quantity, long subtotalCents) {
         this.id = id;
         this.product = product;
         this.quantity = quantity;
-        this.subtotal = subtotal;
+        this.subtotalCents = subtotalCents;
+    }
+
+    // Usado por la proyección JPQL de CartItemRepository
+    public CartItemDTO(Long id, Long productId, String name, String description, long priceCents, String currency,
+                       Integer stock, String category, String imageUrl, Integer quantity) {
+        this(id, new ProductDTO(productId, name, description, priceCents, currency, stock, category, imageUrl),
+                quantity, Money.multiply(priceCents, quantity));
     }
 
     public Long getId() { return id; }
@@ -24,6 +39,13 @@ public class CartItemDTO {
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
     
-    public Double getSubtotal() { return subtotal; }
-    public void setSubtotal(Double subtotal) { this.subtotal = subtotal; }
+    @JsonProperty(value = "subtotal", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = MinorUnitsSerializer.class)
+    public long getSubtotalCents() { return subtotalCents; }
+    public void setSubtotalCents(long subtotalCents) { this.subtotalCents = subtotalCents; }
+
+    // La moneda ya viaja en el producto
+    @JsonIgnore
+    @Override
+    public String getCurrency() { return product != null ? product.getCurrency() : null; }
 }
@@ -1,23 +1,36 @@
 package com.ecommerce.dto;
 
-public class CheckoutResponseDTO {
+import com.ecommerce.config.MinorUnitsSerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonPropertyOrder({"message", "total", "currency", "itemsCount"})
+public class CheckoutResponseDTO implements HasCurrency {
     private String message;
-    private Double total;
+    private long totalCents;
+    private String currency;
     private Integer itemsCount;
 
     public CheckoutResponseDTO() {}
 
-    public CheckoutResponseDTO(String message, Double total, Integer itemsCount) {
+    public CheckoutResponseDTO(String message, long totalCents, String currency, Integer itemsCount) {
         this.message = message;
-        this.total = total;
+        this.totalCents = totalCents;
+        this.currency = currency;
         this.itemsCount = itemsCount;
     }
 
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
     
-    public Double getTotal() { return total; }
-    public void setTotal(Double total) { this.total = total; }
+    @JsonProperty(value = "total", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = MinorUnitsSerializer.class)
+    public long getTotalCents() { return totalCents; }
+    public void setTotalCents(long totalCents) { this.totalCents = totalCents; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
     
     public Integer getItemsCount() { return itemsCount; }
     public void setItemsCount(Integer itemsCount) { this.itemsCount = itemsCount; }
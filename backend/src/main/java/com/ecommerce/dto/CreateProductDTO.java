@@ -2,6 +2,8 @@ package com.ecommerce.dto;
 
 import jakarta.validation.constraints.*;
 
+import java.math.BigDecimal;
+
 public class CreateProductDTO {
     @NotBlank(message = "El nombre del producto es obligatorio")
     @Size(min = 2, max = 100, message = "El nombre debe tener entre 2 y 100 caracteres")
@@ -13,12 +15,20 @@ public class CreateProductDTO {
 
     @NotNull(message = "El precio es obligatorio")
     @DecimalMin(value = "0.01", message = "El precio debe ser mayor a 0")
-    private Double price;
+    private BigDecimal price;
+
+    @Size(min = 3, max = 3, message = "La moneda debe ser un código ISO 4217 de 3 letras")
+    private String currency;
 
     @NotNull(message = "El stock es obligatorio")
     @Min(value = 0, message = "El stock no puede ser negativo")
     private Integer stock;
 
+    // Porciones de stock para productos muy demandados (ver StockShardService); 1 = una sola fila
+    @Min(value = 1, message = "Las porciones de stock deben estar entre 1 y 64")
+    @Max(value = 64, message = "Las porciones de stock deben estar entre 1 y 64")
+    private Integer stockShards;
+
     @NotBlank(message = "La categoría es obligatoria")
     private String category;
 
@@ -26,7 +36,7 @@ public class CreateProductDTO {
 
     public CreateProductDTO() {}
 
-    public CreateProductDTO(String name, String description, Double price, 
+    public CreateProductDTO(String name, String description, BigDecimal price, 
                            Integer stock, String category, String imageUrl) {
         this.name = name;
         this.description = description;
@@ -42,12 +52,18 @@ public class CreateProductDTO {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
-    public Double getPrice() { return price; }
-    public void setPrice(Double price) { this.price = price; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
     
     public Integer getStock() { return stock; }
     public void setStock(Integer stock) { this.stock = stock; }
     
+    public Integer getStockShards() { return stockShards; }
+    public void setStockShards(Integer stockShards) { this.stockShards = stockShards; }
+    
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
     
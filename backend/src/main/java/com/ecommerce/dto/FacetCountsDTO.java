@@ -0,0 +1,37 @@
+package com.ecommerce.dto;
+
+import java.util.List;
+
+public class FacetCountsDTO {
+    private long total;
+    private List<FacetValueDTO> categories;
+    private List<FacetValueDTO> priceRanges;
+    private long inStock;
+    private long outOfStock;
+
+    public FacetCountsDTO() {}
+
+    public FacetCountsDTO(long total, List<FacetValueDTO> categories, List<FacetValueDTO> priceRanges,
+                          long inStock, long outOfStock) {
+        this.total = total;
+        this.categories = categories;
+        this.priceRanges = priceRanges;
+        this.inStock = inStock;
+        this.outOfStock = outOfStock;
+    }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<FacetValueDTO> getCategories() { return categories; }
+    public void setCategories(List<FacetValueDTO> categories) { this.categories = categories; }
+
+    public List<FacetValueDTO> getPriceRanges() { return priceRanges; }
+    public void setPriceRanges(List<FacetValueDTO> priceRanges) { this.priceRanges = priceRanges; }
+
+    public long getInStock() { return inStock; }
+    public void setInStock(long inStock) { this.inStock = inStock; }
+
+    public long getOutOfStock() { return outOfStock; }
+    public void setOutOfStock(long outOfStock) { this.outOfStock = outOfStock; }
+}
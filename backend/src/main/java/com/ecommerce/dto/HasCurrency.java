@@ -0,0 +1,6 @@
+package com.ecommerce.dto;
+
+// DTOs con montos en unidades menores; MinorUnitsSerializer toma de aquí la cantidad de decimales
+public interface HasCurrency {
+    String getCurrency();
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+// Evento tal como lo reciben los sinks del outbox; id sirve para descartar duplicados
+// (la entrega es al menos una vez)
+public class OutboxMessageDTO {
+    private Long id;
+    private String aggregateType;
+    private String aggregateId;
+    private String type;
+    private LocalDateTime createdAt;
+    @JsonRawValue
+    private String payload;
+
+    public OutboxMessageDTO() {}
+
+    public OutboxMessageDTO(Long id, String aggregateType, String aggregateId, String type,
+                            LocalDateTime createdAt, String payload) {
+        this.id = id;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.type = type;
+        this.createdAt = createdAt;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getAggregateType() { return aggregateType; }
+    public void setAggregateType(String aggregateType) { this.aggregateType = aggregateType; }
+
+    public String getAggregateId() { return aggregateId; }
+    public void setAggregateId(String aggregateId) { this.aggregateId = aggregateId; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.dto;
+
+import com.ecommerce.config.MinorUnitsSerializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Delta de precio/stock que se publica al cambiar un producto y se envía por /api/products/stream
+@JsonPropertyOrder({"id", "price", "currency", "stock"})
+public class ProductChangeDTO implements HasCurrency {
+    private Long id;
+    private long priceCents;
+    private String currency;
+    private Integer stock;
+
+    public ProductChangeDTO() {}
+
+    public ProductChangeDTO(Long id, long priceCents, String currency, Integer stock) {
+        this.id = id;
+        this.priceCents = priceCents;
+        this.currency = currency;
+        this.stock = stock;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    @JsonProperty(value = "price", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = MinorUnitsSerializer.class)
+    public long getPriceCents() { return priceCents; }
+    public void setPriceCents(long priceCents) { this.priceCents = priceCents; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public Integer getStock() { return stock; }
+    public void setStock(Integer stock) { this.stock = stock; }
+}
@@ -1,22 +1,34 @@
 package com.ecommerce.dto;
 
-public class ProductDTO {
+import com.ecommerce.config.JacksonConfig;
+import com.ecommerce.config.MinorUnitsSerializer;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// El filtro permite elegir campos con ?fields=; por defecto se serializan todos
+@JsonFilter(JacksonConfig.FIELDS_FILTER)
+@JsonPropertyOrder({"id", "name", "description", "price", "currency", "stock", "category", "imageUrl"})
+public class ProductDTO implements HasCurrency {
     private Long id;
     private String name;
     private String description;
-    private Double price;
+    private long priceCents;
+    private String currency;
     private Integer stock;
     private String category;
     private String imageUrl;
 
     public ProductDTO() {}
 
-    public ProductDTO(Long id, String name, String description, Double price, 
+    public ProductDTO(Long id, String name, String description, long priceCents, String currency,
                      Integer stock, String category, String imageUrl) {
         this.id = id;
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.priceCents = priceCents;
+        this.currency = currency;
         this.stock = stock;
         this.category = category;
         this.imageUrl = imageUrl;
@@ -31,8 +43,14 @@ public class ProductDTO {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
-    public Double getPrice() { return price; }
-    public void setPrice(Double price) { this.price = price; }
+    // En JSON es "price" en unidades de la moneda (45000.5, no 4500050); no se lee de vuelta
+    @JsonProperty(value = "price", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = MinorUnitsSerializer.class)
+    public long getPriceCents() { return priceCents; }
+    public void setPriceCents(long priceCents) { this.priceCents = priceCents; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
     
     public Integer getStock() { return stock; }
     public void setStock(Integer stock) { this.stock = stock; }
@@ -0,0 +1,25 @@
+package com.ecommerce.dto;
+
+public class SuggestionDTO {
+    // "product" o "category"
+    private String type;
+    private String id;
+    private String text;
+
+    public SuggestionDTO() {}
+
+    public SuggestionDTO(String type, String id, String text) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+}
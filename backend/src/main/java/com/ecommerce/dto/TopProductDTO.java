@@ -0,0 +1,20 @@
+package com.ecommerce.dto;
+
+public class TopProductDTO {
+    private ProductDTO product;
+    // Unidades vendidas en la ventana (estimadas)
+    private long sold;
+
+    public TopProductDTO() {}
+
+    public TopProductDTO(ProductDTO product, long sold) {
+        this.product = product;
+        this.sold = sold;
+    }
+
+    public ProductDTO getProduct() { return product; }
+    public void setProduct(ProductDTO product) { this.product = product; }
+
+    public long getSold() { return sold; }
+    public void setSold(long sold) { this.sold = sold; }
+}
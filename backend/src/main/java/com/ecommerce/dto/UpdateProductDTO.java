@@ -2,6 +2,8 @@ package com.ecommerce.dto;
 
 import jakarta.validation.constraints.*;
 
+import java.math.BigDecimal;
+
 public class UpdateProductDTO {
     @Size(min = 2, max = 100, message = "El nombre debe tener entre 2 y 100 caracteres")
     private String name;
@@ -10,17 +12,25 @@ public class UpdateProductDTO {
     private String description;
 
     @DecimalMin(value = "0.01", message = "El precio debe ser mayor a 0")
-    private Double price;
+    private BigDecimal price;
+
+    @Size(min = 3, max = 3, message = "La moneda debe ser un código ISO 4217 de 3 letras")
+    private String currency;
 
     @Min(value = 0, message = "El stock no puede ser negativo")
     private Integer stock;
 
+    // Porciones de stock para productos muy demandados (ver StockShardService); 1 = una sola fila
+    @Min(value = 1, message = "Las porciones de stock deben estar entre 1 y 64")
+    @Max(value = 64, message = "Las porciones de stock deben estar entre 1 y 64")
+    private Integer stockShards;
+
     private String category;
     private String imageUrl;
 
     public UpdateProductDTO() {}
 
-    public UpdateProductDTO(String name, String description, Double price, 
+    public UpdateProductDTO(String name, String description, BigDecimal price, 
                            Integer stock, String category, String imageUrl) {
         this.name = name;
         this.description = description;
@@ -36,12 +46,18 @@ public class UpdateProductDTO {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
-    public Double getPrice() { return price; }
-    public void setPrice(Double price) { this.price = price; }
+    public BigDecimal getPrice() { return price; }
+    public void setPrice(BigDecimal price) { this.price = price; }
+    
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
     
     public Integer getStock() { return stock; }
     public void setStock(Integer stock) { this.stock = stock; }
     
+    public Integer getStockShards() { return stockShards; }
+    public void setStockShards(Integer stockShards) { this.stockShards = stockShards; }
+    
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
     
@@ -0,0 +1,35 @@
+package com.ecommerce.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// Montos como long en unidades menores de la moneda (centavos para ARS). Las cuentas del carrito
+// y del checkout se hacen en long; BigDecimal solo aparece al leer un precio de la API.
+public final class Money {
+
+    public static final String DEFAULT_CURRENCY = "ARS";
+
+    private Money() {}
+
+    public static long toMinorUnits(BigDecimal amount, String currency) {
+        // ArithmeticException si tiene más decimales que la moneda o no entra en un long
+        return amount.setScale(fractionDigits(currency), RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public static long multiply(long minorUnits, int quantity) {
+        return Math.multiplyExact(minorUnits, quantity);
+    }
+
+    public static int fractionDigits(String currency) {
+        if (currency == null) {
+            return 2;
+        }
+        return Math.max(Currency.getInstance(currency).getDefaultFractionDigits(), 0);
+    }
+
+    // Código ISO 4217 en mayúsculas; IllegalArgumentException si no existe
+    public static String normalizeCurrency(String currency) {
+        return Currency.getInstance(currency.trim().toUpperCase()).getCurrencyCode();
+    }
+}
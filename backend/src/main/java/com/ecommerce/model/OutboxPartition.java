@@ -0,0 +1,23 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+
+// Una fila por partición del outbox: el relay que la bloquea es el único que publica sus eventos
+@Entity
+@Table(name = "outbox_partitions")
+public class OutboxPartition {
+    @Id
+    @Column(name = "partition_no")
+    private Integer partitionNo;
+
+    // Constructors
+    public OutboxPartition() {}
+
+    public OutboxPartition(Integer partitionNo) {
+        this.partitionNo = partitionNo;
+    }
+
+    // Getters and setters
+    public Integer getPartitionNo() { return partitionNo; }
+    public void setPartitionNo(Integer partitionNo) { this.partitionNo = partitionNo; }
+}
@@ -15,8 +15,12 @@ public class Product {
     @Column(nullable = false)
     private String description;
 
-    @Column(nullable = false)
-    private Double price;
+    // Unidades menores de la moneda (ver Money)
+    @Column(name = "price_cents", nullable = false)
+    private long priceCents;
+
+    @Column(nullable = false, length = 3)
+    private String currency = Money.DEFAULT_CURRENCY;
 
     @Column(nullable = false)
     private Integer stock;
@@ -26,6 +30,11 @@ public class Product {
 
     private String imageUrl;
 
+    // Cantidad de porciones en que se reparte el stock (null = una sola fila). Con porciones,
+    // stock es la suma cacheada que actualiza StockShardService.
+    @Column(name = "stock_shards")
+    private Integer stockShards;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -33,12 +42,16 @@ public class Product {
     public void setName(String name) { this.name = name; }
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
-    public Double getPrice() { return price; }
-    public void setPrice(Double price) { this.price = price; }
+    public long getPriceCents() { return priceCents; }
+    public void setPriceCents(long priceCents) { this.priceCents = priceCents; }
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
     public Integer getStock() { return stock; }
     public void setStock(Integer stock) { this.stock = stock; }
     public String getCategory() { return category; }
     public void setCategory(String category) { this.category = category; }
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public Integer getStockShards() { return stockShards; }
+    public void setStockShards(Integer stockShards) { this.stockShards = stockShards; }
 }
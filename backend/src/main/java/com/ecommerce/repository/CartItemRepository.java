@@ -1,11 +1,47 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.CartItemDTO;
 import com.ecommerce.model.CartItem;
 import com.ecommerce.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByUser(User user);
     void deleteByUser(User user);
+
+    // Carrito completo en una sola consulta, sin hidratar CartItem/Product/User
+    @Query("select new com.ecommerce.dto.CartItemDTO(ci.id, p.id, p.name, p.description, p.priceCents, p.currency, p.stock, " +
+           "p.category, p.imageUrl, ci.quantity) " +
+           "from CartItem ci join ci.product p where ci.user.email = :email order by ci.id")
+    List<CartItemDTO> findProjectedByUserEmail(@Param("email") String email);
+
+    // Cantidades de todos los carritos, para rearmar las reservas de stock al iniciar
+    @Query("select u.email as email, p.id as productId, ci.quantity as quantity, ci.updatedAt as updatedAt " +
+           "from CartItem ci join ci.user u join ci.product p")
+    List<CartHold> findAllHolds();
+
+    // Usuarios cuyo carrito no tuvo cambios desde cutoff (ningún ítem tocado después)
+    @Query("select ci.user.id from CartItem ci group by ci.user.id having max(ci.updatedAt) < :cutoff")
+    List<Long> findExpiredCartUserIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Vuelve a comprobar el vencimiento al borrar: el usuario pudo tocar el carrito después de la consulta anterior
+    @Modifying
+    @Query("delete from CartItem ci where ci.user.id in :userIds and not exists " +
+           "(select 1 from CartItem touched where touched.user = ci.user and touched.updatedAt >= :cutoff)")
+    int deleteExpiredCarts(@Param("userIds") Collection<Long> userIds, @Param("cutoff") LocalDateTime cutoff);
+
+    interface CartHold {
+        String getEmail();
+        Long getProductId();
+        Integer getQuantity();
+        LocalDateTime getUpdatedAt();
+    }
 }
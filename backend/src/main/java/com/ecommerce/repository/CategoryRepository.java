@@ -1,9 +1,21 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.CategoryDTO;
 import com.ecommerce.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, String> {
+
+    @Query("select new com.ecommerce.dto.CategoryDTO(c.id, c.name, c.description) from Category c")
+    List<CategoryDTO> findAllProjected();
+
+    @Query("select new com.ecommerce.dto.CategoryDTO(c.id, c.name, c.description) from Category c where c.id = :id")
+    Optional<CategoryDTO> findProjectedById(@Param("id") String id);
 }
@@ -0,0 +1,19 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("select e from OutboxEvent e where e.partitionNo in :partitions order by e.id")
+    List<OutboxEvent> findBatch(@Param("partitions") Collection<Integer> partitions, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OutboxPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxPartitionRepository extends JpaRepository<OutboxPartition, Integer> {
+
+    // Particiones con eventos pendientes que ningún otro relay tiene tomadas; quedan bloqueadas
+    // hasta el fin de la transacción. Al azar, para que varias instancias se repartan el trabajo.
+    @Query(value = "select p.partition_no from outbox_partitions p " +
+                   "where exists (select 1 from outbox o where o.partition_no = p.partition_no) " +
+                   "order by random() limit :limit for update skip locked", nativeQuery = true)
+    List<Integer> lockPendingPartitions(@Param("limit") int limit);
+}
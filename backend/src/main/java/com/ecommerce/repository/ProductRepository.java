@@ -1,7 +1,56 @@
 package com.ecommerce.repository;
 
+import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    @Query("select new com.ecommerce.dto.ProductDTO(p.id, p.name, p.description, p.priceCents, p.currency, p.stock, p.category, p.imageUrl) " +
+           "from Product p")
+    List<ProductDTO> findAllProjected();
+
+    @Query("select new com.ecommerce.dto.ProductDTO(p.id, p.name, p.description, p.priceCents, p.currency, p.stock, p.category, p.imageUrl) " +
+           "from Product p where p.id = :id")
+    Optional<ProductDTO> findProjectedById(@Param("id") Long id);
+
+    @Query("select new com.ecommerce.dto.ProductDTO(p.id, p.name, p.description, p.priceCents, p.currency, p.stock, p.category, p.imageUrl) " +
+           "from Product p where p.id in :ids")
+    List<ProductDTO> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bloquea la fila hasta el commit: dos cambios del mismo producto se serializan y sus eventos
+    // quedan en el outbox en el mismo orden en que se confirmaron
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findForUpdate(@Param("id") Long id);
+
+    // Igual que findForUpdate para los productos sin porciones de un checkout (los que tienen
+    // porciones descuentan de product_stock_shards), siempre en orden de id para no cruzarse
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :ids and (p.stockShards is null or p.stockShards <= 1) order by p.id")
+    List<Product> findUnshardedForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Productos con stock en porciones (stockShards es null o mayor a 1). Un rango y no IS NOT NULL,
+    // así usa idx_products_stock_shards también en H2
+    // Solo ids: cada uno se rebalancea en su propia transacción, con la fila bloqueada
+    @Query("select p.id from Product p where p.stockShards > 1 order by p.id")
+    List<Long> findShardedIds();
+
+    // Nombre y categoría de todos los productos, para el índice de autocompletado
+    @Query("select p.id as id, p.name as name, p.category as category from Product p")
+    List<SuggestRow> findSuggestRows();
+
+    interface SuggestRow {
+        Long getId();
+        String getName();
+        String getCategory();
+    }
 }
@@ -0,0 +1,32 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+
+    // Descuento condicional sobre una sola porción: 0 filas si no le alcanza el stock
+    @Modifying
+    @Query("update ProductStockShard s set s.stock = s.stock - :quantity " +
+           "where s.product.id = :productId and s.shardNo = :shardNo and s.stock >= :quantity")
+    int decrement(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+
+    // Siempre en el mismo orden, para que dos transacciones que bloquean todas no se crucen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ProductStockShard s where s.product.id = :productId order by s.shardNo")
+    List<ProductStockShard> findForUpdate(@Param("productId") Long productId);
+
+    @Query("select s.stock from ProductStockShard s where s.product.id = :productId order by s.shardNo")
+    List<Integer> findStocks(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("delete from ProductStockShard s where s.product.id = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+}
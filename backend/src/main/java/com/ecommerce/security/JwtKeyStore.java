@@ -0,0 +1,153 @@
+package com.ecommerce.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Claves RSA para firmar (RS256) y verificar JWT, cargadas una vez al iniciar desde jwt.keys.dir:
+// - <kid>.pem: clave privada PKCS#8; la pública se deriva de ella
+// - <kid>.pub.pem: solo clave pública (claves retiradas que aún verifican tokens vigentes)
+// Firma la clave jwt.keys.active-kid (o la última privada por nombre). Sin directorio se genera
+// una clave efímera: alcanza para desarrollo, pero los tokens no sobreviven a un reinicio.
+@Component
+public class JwtKeyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyStore.class);
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${jwt.keys.dir:}")
+    private String keysDir;
+
+    @Value("${jwt.keys.active-kid:}")
+    private String activeKid;
+
+    private String signingKid;
+    private PrivateKey signingKey;
+    // Claves públicas ya parseadas por kid: verificar no vuelve a leer ni decodificar nada
+    private final Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+    private Map<String, Object> jwks;
+    private String jwksEtag;
+
+    @PostConstruct
+    void load() throws IOException, GeneralSecurityException {
+        Map<String, PrivateKey> privateKeys = new LinkedHashMap<>();
+        if (keysDir.isBlank()) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+            String kid = "ephemeral-" + Long.toString(System.currentTimeMillis(), 36);
+            privateKeys.put(kid, keyPair.getPrivate());
+            publicKeys.put(kid, keyPair.getPublic());
+            log.warn("jwt.keys.dir no está configurado: se generó la clave efímera {} (los tokens no sobreviven a un reinicio)", kid);
+        } else {
+            loadDirectory(Path.of(keysDir), privateKeys);
+        }
+
+        if (privateKeys.isEmpty()) {
+            throw new IllegalStateException("No hay claves privadas para firmar JWT en " + keysDir);
+        }
+        signingKid = activeKid.isBlank() ? new ArrayList<>(privateKeys.keySet()).get(privateKeys.size() - 1) : activeKid;
+        signingKey = privateKeys.get(signingKid);
+        if (signingKey == null) {
+            throw new IllegalStateException("La clave activa " + signingKid + " no existe en " + keysDir);
+        }
+        buildJwks();
+        log.info("JWT: firmando con kid={}, {} claves públicas publicadas", signingKid, publicKeys.size());
+    }
+
+    public String getSigningKid() { return signingKid; }
+
+    public PrivateKey getSigningKey() { return signingKey; }
+
+    public PublicKey getPublicKey(String kid) { return publicKeys.get(kid); }
+
+    public Map<String, Object> getJwks() { return jwks; }
+
+    public String getJwksEtag() { return jwksEtag; }
+
+    private void loadDirectory(Path dir, Map<String, PrivateKey> privateKeys) throws IOException, GeneralSecurityException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(file -> file.getFileName().toString().endsWith(".pem")).sorted().toList();
+        }
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            byte[] der = decodePem(Files.readString(file, StandardCharsets.US_ASCII));
+            if (name.endsWith(".pub.pem")) {
+                publicKeys.put(name.substring(0, name.length() - ".pub.pem".length()),
+                        keyFactory.generatePublic(new X509EncodedKeySpec(der)));
+            } else {
+                String kid = name.substring(0, name.length() - ".pem".length());
+                RSAPrivateCrtKey privateKey = (RSAPrivateCrtKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(der));
+                privateKeys.put(kid, privateKey);
+                publicKeys.put(kid, keyFactory.generatePublic(
+                        new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent())));
+            }
+        }
+    }
+
+    // JWKS (RFC 7517) armado una sola vez; el ETag permite responder 304 a quien ya lo tiene
+    private void buildJwks() throws GeneralSecurityException {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        StringBuilder fingerprint = new StringBuilder();
+        for (Map.Entry<String, PublicKey> entry : publicKeys.entrySet()) {
+            RSAPublicKey publicKey = (RSAPublicKey) entry.getValue();
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("kid", entry.getKey());
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("n", BASE64_URL.encodeToString(unsigned(publicKey.getModulus())));
+            jwk.put("e", BASE64_URL.encodeToString(unsigned(publicKey.getPublicExponent())));
+            keys.add(jwk);
+            fingerprint.append(entry.getKey()).append(':').append(jwk.get("n")).append(';');
+        }
+        jwks = Map.of("keys", keys);
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+        jwksEtag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    }
+
+    private static byte[] decodePem(String pem) {
+        String base64 = pem.replaceAll("-----[A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+
+    // BigInteger agrega un byte 0 de signo que JWK no lleva
+    private static byte[] unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+}
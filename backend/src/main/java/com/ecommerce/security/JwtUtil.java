@@ -2,73 +2,123 @@ package com.ecommerce.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
+// Firma RS256 con la clave activa de JwtKeyStore y el kid en la cabecera. Cualquier servicio puede
+// verificar con /.well-known/jwks.json sin compartir un secreto.
 @Component
 public class JwtUtil {
-    @Value("${jwt.secret}")
+
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    @Value("${jwt.secret:}")
     private String secret;
     @Value("${jwt.expiration}")
     private long expiration;
+    // Acepta tokens HS256 emitidos antes de pasar a RS256 hasta que venzan
+    @Value("${jwt.legacy-hs256.enabled:true}")
+    private boolean legacyHs256Enabled;
+
+    @Autowired
+    private JwtKeyStore keyStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer signTimer;
+    private Timer verifyTimer;
+    private Key legacyKey;
+    // JwtParser es inmutable y thread-safe: se arma una vez y la clave se resuelve por kid
+    private JwtParser parser;
+
+    @PostConstruct
+    void init() {
+        signTimer = Timer.builder("jwt").tag("operation", "sign").register(meterRegistry);
+        verifyTimer = Timer.builder("jwt").tag("operation", "verify").register(meterRegistry);
+
+        if (legacyHs256Enabled && !secret.isBlank()) {
+            try {
+                legacyKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            } catch (WeakKeyException e) {
+                log.warn("jwt.secret es demasiado corto para HS256: no se aceptarán tokens HS256 anteriores");
+            }
+        }
+        parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                return resolveKey(header);
+            }
+        }).build();
+    }
 
     public String generateToken(String email, Set<String> roles) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.builder()
+        return signTimer.record(() -> Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyStore.getSigningKid())
                 .setSubject(email)
                 .claim("roles", roles)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+                .signWith(keyStore.getSigningKey(), SignatureAlgorithm.RS256)
+                .compact());
     }
 
     public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(secret.getBytes()).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return extractEmail(token);
     }
 
+    // Verifica firma y vencimiento (jjwt rechaza tokens vencidos) en un solo parseo
     public String extractEmail(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        long start = System.nanoTime();
+        try {
+            return parser.parseClaimsJws(token).getBody().getSubject();
+        } finally {
+            verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
     public boolean validateToken(String token, String email) {
         try {
-            String extractedEmail = extractEmail(token);
-            return extractedEmail.equals(email) && !isTokenExpired(token);
+            return extractEmail(token).equals(email);
         } catch (Exception e) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        Key key = Keys.hmacShaKeyFor(secret.getBytes());
-        Date expiration = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return expiration.before(new Date());
-    }
-
     public boolean validateToken(String token) {
         try {
-            Key key = Keys.hmacShaKeyFor(secret.getBytes());
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            extractEmail(token);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
+
+    private Key resolveKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey != null && SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+                return legacyKey;
+            }
+            throw new UnsupportedJwtException("Token sin kid");
+        }
+        Key key = keyStore.getPublicKey(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("kid desconocido: " + kid);
+        }
+        return key;
+    }
 }
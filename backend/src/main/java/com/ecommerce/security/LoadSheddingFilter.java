@@ -0,0 +1,117 @@
+package com.ecommerce.security;
+
+import com.ecommerce.config.ReplicaRoutingDataSource;
+import com.ecommerce.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Rechaza con 503 (Retry-After) mientras el servicio está saturado, antes de autenticar o tocar la base:
+// - hilos esperando conexión en el pool primario por encima del máximo, o
+// - latencia promedio (EWMA) de los requests por encima del umbral. Mientras se rechaza por latencia
+//   se deja pasar un request de prueba cada probe-interval-ms para que el promedio pueda bajar.
+@Component
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Value("${app.load-shedding.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.load-shedding.max-latency-ms:2000}")
+    private long maxLatencyMillis;
+
+    @Value("${app.load-shedding.max-pool-waiters:10}")
+    private int maxPoolWaiters;
+
+    @Value("${app.load-shedding.ewma-alpha:0.2}")
+    private double alpha;
+
+    @Value("${app.load-shedding.probe-interval-ms:500}")
+    private long probeIntervalMillis;
+
+    // EWMA en microsegundos guardado como bits de double para actualizarlo con CAS
+    private final AtomicLong latencyEwma = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong lastProbe = new AtomicLong(System.nanoTime());
+
+    @PostConstruct
+    void initMetrics() {
+        meterRegistry.gauge("http.server.latency.ewma", latencyEwma, bits -> Double.longBitsToDouble(bits.get()) / 1000.0);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String reason = overloadReason();
+        if (reason != null) {
+            meterRegistry.counter("http.server.shed", "reason", reason).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                    HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                    "Servicio sobrecargado, intente nuevamente en unos segundos", request.getRequestURI()));
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Los requests asíncronos (SSE, API reactiva) liberan el hilo enseguida y no representan la latencia
+            if (!request.isAsyncStarted()) {
+                record((System.nanoTime() - start) / 1000);
+            }
+        }
+    }
+
+    private String overloadReason() {
+        HikariPoolMXBean pool = routingDataSource.getPrimary().getHikariPoolMXBean();
+        if (pool != null && pool.getThreadsAwaitingConnection() > maxPoolWaiters) {
+            return "pool";
+        }
+        if (Double.longBitsToDouble(latencyEwma.get()) > maxLatencyMillis * 1000.0 && !tryProbe()) {
+            return "latency";
+        }
+        return null;
+    }
+
+    private boolean tryProbe() {
+        long now = System.nanoTime();
+        long last = lastProbe.get();
+        return now - last > probeIntervalMillis * 1_000_000L && lastProbe.compareAndSet(last, now);
+    }
+
+    private void record(long micros) {
+        latencyEwma.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            return Double.doubleToLongBits(current + alpha * (micros - current));
+        });
+    }
+}
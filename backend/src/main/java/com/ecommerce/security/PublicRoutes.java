@@ -0,0 +1,41 @@
+package com.ecommerce.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+// Rutas públicas compiladas una sola vez. Las usan la autorización de SecurityConfig y el atajo
+// de JwtAuthenticationFilter, así ambas listas no pueden desincronizarse.
+final class PublicRoutes {
+
+    // Archivos estáticos: cadena propia sin filtros de autenticación
+    static final RequestMatcher STATIC_ASSETS = new OrRequestMatcher(
+            antMatcher("/"),
+            antMatcher("/index.html"),
+            antMatcher("/css/**"),
+            antMatcher("/js/**"),
+            antMatcher("/images/**"),
+            antMatcher("/favicon.ico")
+    );
+
+    static final RequestMatcher API = new OrRequestMatcher(
+            antMatcher("/api/auth/**"),
+            antMatcher("/actuator/health"),
+            antMatcher("/api/products"), // GET products sin auth
+            antMatcher(HttpMethod.GET, "/api/products/facets"),
+            antMatcher(HttpMethod.GET, "/api/products/top"),
+            antMatcher(HttpMethod.GET, "/api/products/suggest"),
+            antMatcher(HttpMethod.GET, "/api/products/stream"),
+            antMatcher(HttpMethod.GET, "/api/reactive/products"),
+            antMatcher(HttpMethod.GET, "/.well-known/jwks.json")
+    );
+
+    // Scrape de Prometheus: sin auth solo en el puerto de management (ver SecurityConfig)
+    static final RequestMatcher PROMETHEUS = antMatcher(HttpMethod.GET, "/actuator/prometheus");
+
+    static final RequestMatcher ACTUATOR = antMatcher("/actuator/**");
+
+    private PublicRoutes() {}
+}
@@ -0,0 +1,196 @@
+package com.ecommerce.security;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Límite de requests por cliente con token buckets. Corre dentro de la cadena de seguridad
+// después del filtro JWT: los usuarios autenticados se limitan por email y el resto por IP.
+// Rutas: "patrón=rate:burst" separados por coma; gana el primer patrón que coincide. Una ruta mal
+// escrita o con rate/burst no positivos impide el arranque.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int SEGMENTS = 16;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.routes:/api/auth/**=5:10,/api/**=50:100}")
+    private String routesConfig;
+
+    @Value("${app.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    // IPs o rangos CIDR de los proxies propios (nginx) que fijan X-Real-IP. El header solo se usa si
+    // el request viene de uno de ellos: de cualquier otro origen se puede falsificar. Vacío = nunca.
+    @Value("${app.rate-limit.trusted-proxies:}")
+    private String trustedProxiesConfig;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Route> routes = new ArrayList<>();
+    private final List<IpAddressMatcher> trustedProxies = new ArrayList<>();
+    private BucketSegment[] segments;
+
+    @PostConstruct
+    void init() {
+        for (String entry : routesConfig.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            routes.add(parseRoute(routes.size(), entry.trim()));
+        }
+        for (String proxy : trustedProxiesConfig.split(",")) {
+            if (!proxy.isBlank()) {
+                trustedProxies.add(new IpAddressMatcher(proxy.trim()));
+            }
+        }
+        segments = new BucketSegment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new BucketSegment(Math.max(1, maxKeys / SEGMENTS));
+        }
+    }
+
+    private Route parseRoute(int index, String entry) {
+        String[] patternAndLimit = entry.split("=");
+        String[] rateAndBurst = patternAndLimit.length == 2 ? patternAndLimit[1].split(":") : new String[0];
+        if (rateAndBurst.length != 2 || patternAndLimit[0].isBlank()) {
+            throw new IllegalStateException("Ruta inválida en app.rate-limit.routes: '" + entry + "' (formato patrón=rate:burst)");
+        }
+        double ratePerSecond;
+        int burst;
+        try {
+            ratePerSecond = Double.parseDouble(rateAndBurst[0].trim());
+            burst = Integer.parseInt(rateAndBurst[1].trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Ruta inválida en app.rate-limit.routes: '" + entry + "' (rate y burst deben ser números)");
+        }
+        if (!(ratePerSecond > 0) || Double.isInfinite(ratePerSecond) || burst < 1) {
+            throw new IllegalStateException("Ruta inválida en app.rate-limit.routes: '" + entry + "' (rate debe ser mayor a 0 y burst al menos 1)");
+        }
+        return new Route(index, patternAndLimit[0].trim(), ratePerSecond, burst);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Route route = findRoute(request.getRequestURI());
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = bucket(route.index + "|" + clientKey(request), route).tryAcquire();
+        if (waitNanos > 0) {
+            meterRegistry.counter("http.server.rate_limited", "route", route.pattern).increment();
+            long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+                    HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests",
+                    "Demasiadas solicitudes, intente nuevamente en " + retryAfterSeconds + " segundos",
+                    request.getRequestURI()));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Route findRoute(String uri) {
+        for (Route route : routes) {
+            if (pathMatcher.match(route.pattern, uri)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        String realIp = isTrustedProxy(request) ? request.getHeader("X-Real-IP") : null;
+        return "ip:" + (realIp != null ? realIp : request.getRemoteAddr());
+    }
+
+    private boolean isTrustedProxy(HttpServletRequest request) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(request)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TokenBucket bucket(String key, Route route) {
+        BucketSegment segment = segments[(key.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+        // El lock del segmento cubre solo la búsqueda; el consumo del token es lock-free
+        synchronized (segment) {
+            return segment.computeIfAbsent(key, k -> new TokenBucket(route.ratePerSecond, route.burst));
+        }
+    }
+
+    private static class Route {
+        private final int index;
+        private final String pattern;
+        private final double ratePerSecond;
+        private final int burst;
+
+        private Route(int index, String pattern, double ratePerSecond, int burst) {
+            this.index = index;
+            this.pattern = pattern;
+            this.ratePerSecond = ratePerSecond;
+            this.burst = burst;
+        }
+    }
+
+    // LRU acotado: al superar la capacidad se descarta el cliente usado hace más tiempo
+    // (si vuelve, empieza con el balde lleno)
+    private static class BucketSegment extends LinkedHashMap<String, TokenBucket> {
+        private final int capacity;
+
+        private BucketSegment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket implementado como GCRA: en lugar de guardar tokens y hora de la última recarga,
+// guarda un único "tiempo teórico de llegada" en un AtomicLong y lo avanza con CAS, sin locks.
+// Equivale a un balde de capacidad burst que se recarga a ratePerSecond tokens por segundo.
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    // 0 si hay token; si no, los nanosegundos hasta el próximo token disponible
+    long tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long next = (arrival - now > 0 ? arrival : now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.CartItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Purga de carritos abandonados: borra los carritos sin cambios en app.cart.purge.retention-days,
+// de a app.cart.purge.batch-size usuarios por transacción y con una pausa entre lotes, así nunca
+// retiene muchos locks ni satura la base. Corre en un hilo propio (las pausas no frenan al resto
+// de los @Scheduled) y en una sola instancia a la vez, con el lease "cart-purge" de job_locks.
+// Métricas: cart.purge.run (duración), cart.purge.carts, cart.purge.items y cart.purge.skipped
+// (pasadas en las que otra instancia tenía el lease).
+@Component
+public class CartPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CartPurgeJob.class);
+
+    private static final String LOCK_NAME = "cart-purge";
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private JobLockService jobLockService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cart.purge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cart.purge.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.cart.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cart.purge.pause-ms:200}")
+    private long pauseMillis;
+
+    @Value("${app.cart.purge.lock-minutes:30}")
+    private long lockMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private ExecutorService worker;
+    private Timer runs;
+    private Counter carts;
+    private Counter items;
+    private Counter skipped;
+
+    @PostConstruct
+    void init() {
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cart-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        runs = meterRegistry.timer("cart.purge.run");
+        carts = meterRegistry.counter("cart.purge.carts");
+        items = meterRegistry.counter("cart.purge.items");
+        skipped = meterRegistry.counter("cart.purge.skipped");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.purge.interval-ms:3600000}", initialDelayString = "${app.cart.purge.initial-delay-ms:60000}")
+    public void schedule() {
+        if (enabled && running.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                try {
+                    purge();
+                } catch (RuntimeException e) {
+                    log.warn("Falló la purga de carritos abandonados: {}", e.toString());
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+    }
+
+    public void purge() {
+        Duration lockAtMost = Duration.ofMinutes(lockMinutes);
+        if (!jobLockService.tryLock(LOCK_NAME, lockAtMost)) {
+            skipped.increment();
+            return;
+        }
+        try {
+            runs.record(() -> purgeBatches(lockAtMost));
+        } finally {
+            jobLockService.unlock(LOCK_NAME);
+        }
+    }
+
+    // Corta antes de que venza el lease: pasado ese punto otra instancia podría estar purgando también
+    private void purgeBatches(Duration lockAtMost) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long deadline = System.nanoTime() + lockAtMost.toNanos() * 9 / 10;
+        long purgedCarts = 0;
+        long purgedItems = 0;
+        while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+            List<Long> userIds = cartItemRepository.findExpiredCartUserIds(cutoff, PageRequest.of(0, batchSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            int deleted = cartService.purgeExpiredCarts(userIds, cutoff);
+            carts.increment(userIds.size());
+            items.increment(deleted);
+            purgedCarts += userIds.size();
+            purgedItems += deleted;
+            if (userIds.size() < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (purgedCarts > 0) {
+            log.info("Purga de carritos: {} carritos, {} ítems sin cambios desde {}", purgedCarts, purgedItems, cutoff);
+        }
+    }
+}
@@ -5,17 +5,25 @@ import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
 import com.ecommerce.exception.UnauthorizedException;
 import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Money;
 import com.ecommerce.model.Product;
 import com.ecommerce.model.User;
 import com.ecommerce.repository.CartItemRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class CartService {
@@ -29,12 +37,47 @@ public class CartService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockReservationLedger reservations;
+
+    @Autowired
+    private StockShardService stockShardService;
+
+    @Autowired
+    private RelatedProductsIndex relatedProducts;
+
+    @Autowired
+    private SalesLeaderboard salesLeaderboard;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    // Las reservas y los productos relacionados viven en memoria: al iniciar se rearman con los
+    // carritos guardados, leídos una sola vez (lo llama CartStateRestorer antes de abrir el servidor).
+    // Si el índice se restaura de su snapshot no hace falta sembrarlo, y sin reservas ni siembra no
+    // se consulta nada.
+    @Transactional(readOnly = true)
+    public void restoreFromCarts() {
+        boolean seedRelated = !relatedProducts.restore();
+        if (!seedRelated && !reservations.isEnabled()) {
+            return;
+        }
+        List<CartItemRepository.CartHold> cartHolds = cartItemRepository.findAllHolds();
+        reservations.rebuild(cartHolds);
+        if (seedRelated) {
+            relatedProducts.seed(cartHolds);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<CartItemDTO> getCartByUserEmail(String email) {
-        User user = getUserByEmail(email);
-        List<CartItem> items = cartItemRepository.findByUser(user);
-        return items.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return cartItemRepository.findProjectedByUserEmail(email);
     }
 
     @Transactional
@@ -43,10 +86,6 @@ public class CartService {
         Product product = productRepository.findById(addToCartDTO.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", addToCartDTO.getProductId()));
 
-        if (product.getStock() < addToCartDTO.getQuantity()) {
-            throw new BadRequestException("Stock insuficiente");
-        }
-
         List<CartItem> existingItems = cartItemRepository.findByUser(user);
         CartItem existingItem = existingItems.stream()
                 .filter(item -> item.getProduct().getId().equals(addToCartDTO.getProductId()))
@@ -55,13 +94,13 @@ public class CartService {
 
         if (existingItem != null) {
             int totalQuantity = existingItem.getQuantity() + addToCartDTO.getQuantity();
-            if (product.getStock() < totalQuantity) {
-                throw new BadRequestException("Stock insuficiente para la cantidad total");
-            }
+            reservations.reserve(email, product.getId(), totalQuantity, product.getStock());
             existingItem.setQuantity(totalQuantity);
             CartItem savedItem = cartItemRepository.save(existingItem);
             return convertToDTO(savedItem);
         } else {
+            reservations.reserve(email, product.getId(), addToCartDTO.getQuantity(), product.getStock());
+            relatedProducts.recordCart(product.getId(), existingItems.stream().map(item -> item.getProduct().getId()).toList());
             CartItem newItem = new CartItem();
             newItem.setUser(user);
             newItem.setProduct(product);
@@ -80,9 +119,7 @@ public class CartService {
             throw new UnauthorizedException("No autorizado para modificar este item");
         }
 
-        if (item.getProduct().getStock() < updateCartItemDTO.getQuantity()) {
-            throw new BadRequestException("Stock insuficiente");
-        }
+        reservations.reserve(email, item.getProduct().getId(), updateCartItemDTO.getQuantity(), item.getProduct().getStock());
 
         item.setQuantity(updateCartItemDTO.getQuantity());
         CartItem savedItem = cartItemRepository.save(item);
@@ -99,12 +136,95 @@ public class CartService {
         }
 
         cartItemRepository.delete(item);
+        reservations.release(email, item.getProduct().getId());
+    }
+
+    // Reemplaza el carrito completo: valida stock con una consulta y aplica solo las diferencias
+    @Transactional
+    public List<CartItemDTO> replaceCart(String email, List<CartLineDTO> lines) {
+        Map<Long, Integer> quantitiesByProduct = new LinkedHashMap<>();
+        for (CartLineDTO line : lines) {
+            if (quantitiesByProduct.put(line.getProductId(), line.getQuantity()) != null) {
+                throw new BadRequestException("Producto repetido en el carrito: " + line.getProductId());
+            }
+        }
+        applyQuantities(email, quantitiesByProduct, true);
+        return cartItemRepository.findProjectedByUserEmail(email);
+    }
+
+    // Aplica en una sola transacción las cantidades finales por producto (0 = quitar del carrito).
+    // Con replace = true además se quitan los productos del carrito que no vienen en el mapa.
+    @Transactional
+    public void applyQuantities(String email, Map<Long, Integer> quantitiesByProduct, boolean replace) {
+        User user = getUserByEmail(email);
+        Map<Long, CartItem> existingByProduct = new HashMap<>();
+        for (CartItem item : cartItemRepository.findByUser(user)) {
+            existingByProduct.put(item.getProduct().getId(), item);
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(quantitiesByProduct.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        List<CartItem> toSave = new ArrayList<>();
+        List<CartItem> toDelete = new ArrayList<>();
+        // Productos que quedan en el carrito y los que entran nuevos, para "comprados juntos"
+        Set<Long> finalProductIds = new LinkedHashSet<>(existingByProduct.keySet());
+        List<Long> addedProductIds = new ArrayList<>();
+        if (replace) {
+            for (CartItem item : existingByProduct.values()) {
+                if (!quantitiesByProduct.containsKey(item.getProduct().getId())) {
+                    toDelete.add(item);
+                    finalProductIds.remove(item.getProduct().getId());
+                    reservations.release(email, item.getProduct().getId());
+                }
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : quantitiesByProduct.entrySet()) {
+            CartItem item = existingByProduct.get(entry.getKey());
+            int quantity = entry.getValue();
+            if (quantity <= 0) {
+                if (item != null) {
+                    toDelete.add(item);
+                }
+                finalProductIds.remove(entry.getKey());
+                reservations.release(email, entry.getKey());
+                continue;
+            }
+            Product product = products.get(entry.getKey());
+            if (product == null) {
+                throw new ResourceNotFoundException("Producto", "id", entry.getKey());
+            }
+            try {
+                reservations.reserve(email, product.getId(), quantity, product.getStock());
+            } catch (BadRequestException e) {
+                throw new BadRequestException("Stock insuficiente para " + product.getName());
+            }
+            if (item == null) {
+                item = new CartItem();
+                item.setUser(user);
+                item.setProduct(product);
+                finalProductIds.add(product.getId());
+                addedProductIds.add(product.getId());
+            } else if (item.getQuantity() == quantity) {
+                continue;
+            }
+            item.setQuantity(quantity);
+            toSave.add(item);
+        }
+
+        cartItemRepository.deleteAllInBatch(toDelete);
+        cartItemRepository.saveAll(toSave);
+        for (Long productId : addedProductIds) {
+            relatedProducts.recordCart(productId, finalProductIds);
+        }
     }
 
     @Transactional
     public void clearCart(String email) {
         User user = getUserByEmail(email);
         cartItemRepository.deleteByUser(user);
+        reservations.releaseAll(email);
     }
 
     @Transactional
@@ -115,25 +235,82 @@ public class CartService {
         if (items.isEmpty()) {
             throw new BadRequestException("El carrito está vacío");
         }
+        // Antes de leer el stock, así un checkout o una edición concurrente del mismo producto espera
+        // al commit de este y su evento del outbox queda después
+        productRepository.findUnshardedForUpdate(items.stream().map(item -> item.getProduct().getId()).toList());
+
+        // Lo reservado por otros carritos no se puede comprar; lo reservado por este sí
+        for (CartItem item : items) {
+            Product product = item.getProduct();
+            if (reservations.available(email, product.getId(), product.getStock()) < item.getQuantity()) {
+                throw new BadRequestException("Stock insuficiente para " + product.getName());
+            }
+        }
 
+        // Total en unidades menores: suma de long, sin redondeos ni boxing
+        String currency = items.get(0).getProduct().getCurrency();
+        long totalCents = 0;
         for (CartItem item : items) {
-            if (item.getProduct().getStock() < item.getQuantity()) {
-                throw new BadRequestException("Stock insuficiente para " + item.getProduct().getName());
+            Product product = item.getProduct();
+            if (!currency.equals(product.getCurrency())) {
+                throw new BadRequestException("El carrito tiene productos en monedas distintas");
             }
+            totalCents = Math.addExact(totalCents, Money.multiply(product.getPriceCents(), item.getQuantity()));
         }
 
-        double total = 0;
+        // Primero todos los descuentos por porciones, que pueden fallar por falta de stock en una
+        // porción: así ninguna entidad Product queda modificada en memoria si el checkout se aborta.
+        // No tocan la fila de products: la suma cacheada y las facetas las refresca el rebalanceo.
+        for (CartItem item : items) {
+            if (StockShardService.isSharded(item.getProduct())) {
+                stockShardService.decrement(item.getProduct(), item.getQuantity());
+            }
+        }
         for (CartItem item : items) {
             Product product = item.getProduct();
+            if (StockShardService.isSharded(product)) {
+                continue;
+            }
             product.setStock(product.getStock() - item.getQuantity());
             productRepository.save(product);
-            total += product.getPrice() * item.getQuantity();
+            productFacetIndex.upsert(product);
+            ProductChangeDTO change = new ProductChangeDTO(product.getId(), product.getPriceCents(),
+                    product.getCurrency(), product.getStock());
+            eventPublisher.publishEvent(change);
+            outboxService.record("product", product.getId(), "ProductStockChanged", change);
+        }
+
+        relatedProducts.recordCheckout(items.stream().map(item -> item.getProduct().getId()).toList());
+        for (CartItem item : items) {
+            salesLeaderboard.record(item.getProduct().getId(), item.getQuantity());
+        }
+
+        List<Map<String, Object>> lines = new ArrayList<>(items.size());
+        for (CartItem item : items) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("productId", item.getProduct().getId());
+            line.put("quantity", item.getQuantity());
+            line.put("priceCents", item.getProduct().getPriceCents());
+            lines.add(line);
         }
+        Map<String, Object> checkoutEvent = new LinkedHashMap<>();
+        checkoutEvent.put("userId", user.getId());
+        checkoutEvent.put("totalCents", totalCents);
+        checkoutEvent.put("currency", currency);
+        checkoutEvent.put("items", lines);
+        outboxService.record("user", user.getId(), "CheckoutCompleted", checkoutEvent);
 
         int itemsCount = items.size();
         cartItemRepository.deleteByUser(user);
+        reservations.releaseAll(email);
 
-        return new CheckoutResponseDTO("Compra realizada exitosamente", total, itemsCount);
+        return new CheckoutResponseDTO("Compra realizada exitosamente", totalCents, currency, itemsCount);
+    }
+
+    // Un lote de la purga de carritos abandonados; devuelve los ítems borrados
+    @Transactional
+    public int purgeExpiredCarts(List<Long> userIds, LocalDateTime cutoff) {
+        return cartItemRepository.deleteExpiredCarts(userIds, cutoff);
     }
 
     private User getUserByEmail(String email) {
@@ -146,19 +323,18 @@ public class CartService {
                 cartItem.getProduct().getId(),
                 cartItem.getProduct().getName(),
                 cartItem.getProduct().getDescription(),
-                cartItem.getProduct().getPrice(),
+                cartItem.getProduct().getPriceCents(),
+                cartItem.getProduct().getCurrency(),
                 cartItem.getProduct().getStock(),
                 cartItem.getProduct().getCategory(),
                 cartItem.getProduct().getImageUrl()
         );
 
-        double subtotal = cartItem.getProduct().getPrice() * cartItem.getQuantity();
-
         return new CartItemDTO(
                 cartItem.getId(),
                 productDTO,
                 cartItem.getQuantity(),
-                subtotal
+                Money.multiply(cartItem.getProduct().getPriceCents(), cartItem.getQuantity())
         );
     }
 }
@@ -0,0 +1,40 @@
+package com.ecommerce.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+// Rearma las reservas y los productos relacionados antes de que el servidor web acepte pedidos:
+// con ApplicationReadyEvent el servidor ya estaba abierto y los carritos tocados mientras tanto
+// se mezclaban con el rearmado.
+@Component
+public class CartStateRestorer implements SmartLifecycle {
+
+    @Autowired
+    private CartService cartService;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        cartService.restoreFromCarts();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // El servidor web arranca en SMART_LIFECYCLE_PHASE - 1024; las fases menores van antes
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+}
@@ -0,0 +1,276 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.*;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.exception.UnauthorizedException;
+import com.ecommerce.model.Money;
+import com.ecommerce.repository.CartItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Punto de entrada de CartController. Con app.cart.write-behind.enabled=true los cambios de
+// cantidad y las bajas del carrito se acumulan en memoria por usuario y se escriben juntos en una
+// sola transacción al vencer la ventana; las lecturas, el vaciado, el checkout y el alta de un
+// producto nuevo en el carrito vacían antes lo pendiente.
+@Service
+public class CartWriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(CartWriteBehindService.class);
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private StockReservationLedger reservations;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cart.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cart.write-behind.window-ms:300}")
+    private long windowMillis;
+
+    private final Map<String, PendingCart> pendingCarts = new ConcurrentHashMap<>();
+    private Counter flushFailures;
+
+    @PostConstruct
+    void init() {
+        flushFailures = meterRegistry.counter("cart.writebehind.flush.failures");
+    }
+
+    public List<CartItemDTO> getCart(String email) {
+        flush(email);
+        return cartService.getCartByUserEmail(email);
+    }
+
+    public CartItemDTO addToCart(String email, AddToCartDTO addToCartDTO) {
+        if (!enabled) {
+            return cartService.addToCart(email, addToCartDTO);
+        }
+        while (true) {
+            PendingCart cart = pendingCart(email);
+            synchronized (cart) {
+                if (cart.closed) {
+                    continue;
+                }
+                load(email, cart);
+                CartItemDTO current = cart.view.get(addToCartDTO.getProductId());
+                if (current == null) {
+                    // Un producto nuevo se escribe en el momento, así el ítem vuelve con su id y se
+                    // puede modificar o quitar enseguida. Quien espera el lock del carrito ve el alta.
+                    flushLocked(email, cart);
+                    return cartService.addToCart(email, addToCartDTO);
+                }
+                ProductDTO product = current.getProduct();
+                int totalQuantity = addToCartDTO.getQuantity() + current.getQuantity();
+                // La reserva se toma ya, no al escribir el carrito
+                reservations.reserve(email, product.getId(), totalQuantity, product.getStock());
+                return cart.put(current.getId(), product, totalQuantity);
+            }
+        }
+    }
+
+    public CartItemDTO updateCartItem(String email, Long itemId, UpdateCartItemDTO updateCartItemDTO) {
+        if (!enabled) {
+            return cartService.updateCartItem(email, itemId, updateCartItemDTO);
+        }
+        while (true) {
+            PendingCart cart = pendingCart(email);
+            synchronized (cart) {
+                if (cart.closed) {
+                    continue;
+                }
+                load(email, cart);
+                CartItemDTO current = findItem(cart, itemId, "No autorizado para modificar este item");
+                reservations.reserve(email, current.getProduct().getId(), updateCartItemDTO.getQuantity(),
+                        current.getProduct().getStock());
+                return cart.put(itemId, current.getProduct(), updateCartItemDTO.getQuantity());
+            }
+        }
+    }
+
+    public void removeFromCart(String email, Long itemId) {
+        if (!enabled) {
+            cartService.removeFromCart(email, itemId);
+            return;
+        }
+        while (true) {
+            PendingCart cart = pendingCart(email);
+            synchronized (cart) {
+                if (cart.closed) {
+                    continue;
+                }
+                load(email, cart);
+                CartItemDTO current = findItem(cart, itemId, "No autorizado para eliminar este item");
+                cart.view.remove(current.getProduct().getId());
+                cart.dirty.put(current.getProduct().getId(), 0);
+                reservations.release(email, current.getProduct().getId());
+                return;
+            }
+        }
+    }
+
+    public List<CartItemDTO> replaceCart(String email, List<CartLineDTO> lines) {
+        flush(email);
+        return cartService.replaceCart(email, lines);
+    }
+
+    public void clearCart(String email) {
+        flush(email);
+        cartService.clearCart(email);
+    }
+
+    public CheckoutResponseDTO checkout(String email) {
+        flush(email);
+        return cartService.checkout(email);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cart.write-behind.window-ms:300}")
+    public void flushExpired() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, PendingCart> entry : pendingCarts.entrySet()) {
+            if (now - entry.getValue().createdAt >= windowMillis) {
+                try {
+                    flush(entry.getKey());
+                } catch (RuntimeException e) {
+                    // El cliente ya recibió la respuesta: los cambios se pierden, pero las reservas
+                    // volvieron a lo guardado (ver flushLocked)
+                    log.warn("Se descartaron los cambios pendientes del carrito de {}: {}", entry.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        for (String email : pendingCarts.keySet()) {
+            try {
+                flush(email);
+            } catch (RuntimeException e) {
+                log.warn("Cambios pendientes del carrito de {} descartados al apagar: {}", email, e.getMessage());
+            }
+        }
+    }
+
+    private void flush(String email) {
+        PendingCart cart = pendingCarts.get(email);
+        if (cart == null) {
+            return;
+        }
+        synchronized (cart) {
+            flushLocked(email, cart);
+        }
+    }
+
+    // El carrito sale del mapa recién después del commit: quien llega mientras tanto espera el lock
+    // y luego arma uno nuevo desde la base ya actualizada. Si falla (por ejemplo, por stock), los
+    // cambios pendientes se descartan, sus reservas vuelven a lo guardado y el error llega a quien
+    // pidió el flush.
+    private void flushLocked(String email, PendingCart cart) {
+        if (cart.closed) {
+            return;
+        }
+        try {
+            if (!cart.dirty.isEmpty()) {
+                cartService.applyQuantities(email, cart.dirty, false);
+            }
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            try {
+                restoreReservations(email, cart.dirty.keySet());
+            } catch (RuntimeException restoreError) {
+                e.addSuppressed(restoreError);
+            }
+            throw e;
+        } finally {
+            cart.closed = true;
+            pendingCarts.remove(email, cart);
+        }
+    }
+
+    // Fija las reservas de los productos descartados en la cantidad guardada. Subir una reserva
+    // puede no alcanzar el stock libre: en ese caso queda la menor que ya tenía.
+    private void restoreReservations(String email, Set<Long> productIds) {
+        Map<Long, CartItemDTO> saved = new HashMap<>();
+        for (CartItemDTO item : cartItemRepository.findProjectedByUserEmail(email)) {
+            saved.put(item.getProduct().getId(), item);
+        }
+        for (Long productId : productIds) {
+            CartItemDTO item = saved.get(productId);
+            if (item == null) {
+                reservations.release(email, productId);
+                continue;
+            }
+            try {
+                reservations.reserve(email, productId, item.getQuantity(), item.getProduct().getStock());
+            } catch (BadRequestException e) {
+                // Sin stock libre para volver a la cantidad guardada
+            }
+        }
+    }
+
+    // Sin consultas dentro de computeIfAbsent: la vista se carga después, con el lock del carrito
+    private PendingCart pendingCart(String email) {
+        return pendingCarts.computeIfAbsent(email, key -> new PendingCart());
+    }
+
+    // Un carrito nuevo entra al mapa solo cuando el anterior ya hizo commit, así que lo que se lee acá está al día
+    private void load(String email, PendingCart cart) {
+        if (!cart.loaded) {
+            for (CartItemDTO item : cartItemRepository.findProjectedByUserEmail(email)) {
+                cart.view.put(item.getProduct().getId(), item);
+            }
+            cart.loaded = true;
+        }
+    }
+
+    private CartItemDTO findItem(PendingCart cart, Long itemId, String unauthorizedMessage) {
+        for (CartItemDTO item : cart.view.values()) {
+            if (itemId.equals(item.getId())) {
+                return item;
+            }
+        }
+        if (cartItemRepository.existsById(itemId)) {
+            throw new UnauthorizedException(unauthorizedMessage);
+        }
+        throw new ResourceNotFoundException("Item del carrito", "id", itemId);
+    }
+
+    private static class PendingCart {
+        private final long createdAt = System.currentTimeMillis();
+        // Vista actual del carrito (base de datos + cambios pendientes) por id de producto
+        private final Map<Long, CartItemDTO> view = new LinkedHashMap<>();
+        // Cantidad final pendiente de escribir por id de producto
+        private final Map<Long, Integer> dirty = new LinkedHashMap<>();
+        private boolean loaded;
+        private boolean closed;
+
+        private CartItemDTO put(Long itemId, ProductDTO product, int quantity) {
+            CartItemDTO item = new CartItemDTO(itemId, product, quantity, Money.multiply(product.getPriceCents(), quantity));
+            view.put(product.getId(), item);
+            dirty.put(product.getId(), quantity);
+            return item;
+        }
+    }
+}
@@ -9,9 +9,9 @@ import com.ecommerce.model.Category;
 import com.ecommerce.repository.CategoryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryService {
@@ -19,16 +19,18 @@ public class CategoryService {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Transactional(readOnly = true)
     public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return categoryRepository.findAllProjected();
     }
 
+    @Transactional(readOnly = true)
     public CategoryDTO getCategoryById(String id) {
-        Category category = categoryRepository.findById(id)
+        return categoryRepository.findProjectedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría", "id", id));
-        return convertToDTO(category);
     }
 
     public CategoryDTO createCategory(CreateCategoryDTO createCategoryDTO) {
@@ -38,6 +40,7 @@ public class CategoryService {
 
         Category category = convertToEntity(createCategoryDTO);
         Category savedCategory = categoryRepository.save(category);
+        suggestIndex.requestRebuild();
         return convertToDTO(savedCategory);
     }
 
@@ -47,6 +50,7 @@ public class CategoryService {
 
         updateCategoryFields(existingCategory, updateCategoryDTO);
         Category updatedCategory = categoryRepository.save(existingCategory);
+        suggestIndex.requestRebuild();
         return convertToDTO(updatedCategory);
     }
 
@@ -55,6 +59,7 @@ public class CategoryService {
             throw new ResourceNotFoundException("Categoría", "id", id);
         }
         categoryRepository.deleteById(id);
+        suggestIndex.requestRebuild();
     }
 
     private CategoryDTO convertToDTO(Category category) {
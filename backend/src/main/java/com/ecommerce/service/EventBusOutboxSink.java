@@ -0,0 +1,25 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OutboxMessageDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Publica cada evento como evento de Spring para los @EventListener de OutboxMessageDTO del mismo proceso
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "bus", matchIfMissing = true)
+public class EventBusOutboxSink implements OutboxSink {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publish(List<OutboxMessageDTO> messages) {
+        for (OutboxMessageDTO message : messages) {
+            eventPublisher.publishEvent(message);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.JobLock;
+import com.ecommerce.repository.JobLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Coordina los jobs que deben correr en una sola instancia a la vez (tabla job_locks). El lease
+// tiene un máximo: si la instancia que lo tiene se cae, vence y otra lo toma en la próxima pasada.
+@Service
+public class JobLockService {
+
+    // pid@host más un sufijo, por si dos procesos comparten pid en contenedores distintos
+    private static final String OWNER = ManagementFactory.getRuntimeMXBean().getName() + "/"
+            + UUID.randomUUID().toString().substring(0, 8);
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    public boolean tryLock(String name, Duration lockAtMost) {
+        if (!jobLockRepository.existsById(name)) {
+            try {
+                jobLockRepository.saveAndFlush(new JobLock(name, LocalDateTime.now().minusSeconds(1)));
+            } catch (DataIntegrityViolationException e) {
+                // Otra instancia creó la fila al mismo tiempo
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return jobLockRepository.acquire(name, OWNER, now, now.plus(lockAtMost)) == 1;
+    }
+
+    public void unlock(String name) {
+        jobLockRepository.release(name, OWNER, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OutboxMessageDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Vacía el outbox en lotes de app.outbox.batch-size. Métricas: outbox.published, outbox.failures,
+// outbox.delivery.lag (de la escritura a la publicación) y outbox.lag.seconds (antigüedad del
+// evento pendiente más viejo). Corre en un hilo propio: un sink lento (webhook) no demora a los
+// @Scheduled del resto de la aplicación.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.poll-ms:500}")
+    private long pollMillis;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-poll:20}")
+    private int maxBatchesPerPoll;
+
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private ScheduledExecutorService relay;
+    private Counter published;
+    private Counter failures;
+    private Timer deliveryLag;
+
+    @PostConstruct
+    void init() {
+        published = meterRegistry.counter("outbox.published");
+        failures = meterRegistry.counter("outbox.failures");
+        deliveryLag = meterRegistry.timer("outbox.delivery.lag");
+        meterRegistry.gauge("outbox.lag.seconds", lagSeconds);
+        if (enabled) {
+            relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "outbox-relay");
+                thread.setDaemon(true);
+                return thread;
+            });
+            relay.scheduleWithFixedDelay(this::drain, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (relay != null) {
+            relay.shutdownNow();
+        }
+    }
+
+    // Nunca deja escapar una excepción: cancelaría las pasadas siguientes de scheduleWithFixedDelay
+    void drain() {
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                List<OutboxMessageDTO> batch = outboxService.publishBatch(batchSize);
+                LocalDateTime now = LocalDateTime.now();
+                for (OutboxMessageDTO message : batch) {
+                    deliveryLag.record(Duration.between(message.getCreatedAt(), now));
+                }
+                published.increment(batch.size());
+                if (batch.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // Se reintenta en la próxima pasada; el orden se conserva porque el lote no se borró
+            failures.increment();
+            log.warn("No se pudo publicar el outbox: {}", e.toString());
+        }
+        try {
+            lagSeconds.set(outboxService.oldestPending()
+                    .map(createdAt -> Duration.between(createdAt, LocalDateTime.now()).toSeconds())
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo medir el atraso del outbox: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OutboxMessageDTO;
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.model.OutboxPartition;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.OutboxPartitionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+// Outbox transaccional: los eventos para otros sistemas se guardan en la tabla outbox dentro de la
+// transacción del cambio (se confirman o se descartan con él) y OutboxRelay los publica después.
+// Cada agregado cae siempre en la misma partición y un lote solo toma particiones que bloqueó con
+// SKIP LOCKED, así dos relays nunca publican a la vez eventos del mismo agregado y se conserva su orden.
+// El id del evento se asigna al insertar, no al confirmar: quien registra un evento de un producto
+// tiene que tener bloqueada su fila (ProductRepository.findForUpdate / findUnshardedForUpdate), como
+// updateProduct, deleteProduct, el checkout y StockShardService.rebalance; si no, dos cambios del
+// mismo producto pueden confirmarse en un orden y publicarse en el otro.
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxPartitionRepository outboxPartitionRepository;
+
+    @Autowired
+    private OutboxSink sink;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.outbox.partitions:16}")
+    private int partitions;
+
+    @Value("${app.outbox.partitions-per-batch:4}")
+    private int partitionsPerBatch;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void createPartitions() {
+        List<OutboxPartition> missing = new ArrayList<>();
+        for (int partitionNo = 0; partitionNo < partitions; partitionNo++) {
+            if (!outboxPartitionRepository.existsById(partitionNo)) {
+                missing.add(new OutboxPartition(partitionNo));
+            }
+        }
+        outboxPartitionRepository.saveAll(missing);
+    }
+
+    // Solo dentro de la transacción del cambio: sin ella el evento podría quedar sin el cambio o al revés
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Object aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId.toString());
+        event.setEventType(eventType);
+        event.setPartitionNo(Math.floorMod((aggregateType + ":" + aggregateId).hashCode(), partitions));
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + eventType, e);
+        }
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+    }
+
+    // Publica un lote y lo borra en la misma transacción. Si el sink falla no se borra nada; si
+    // falla el commit después de publicar, el lote se vuelve a publicar (al menos una vez).
+    @Transactional
+    public List<OutboxMessageDTO> publishBatch(int batchSize) throws Exception {
+        List<Integer> locked = outboxPartitionRepository.lockPendingPartitions(partitionsPerBatch);
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+        List<OutboxEvent> events = outboxEventRepository.findBatch(locked, PageRequest.of(0, batchSize));
+        List<OutboxMessageDTO> messages = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            messages.add(new OutboxMessageDTO(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                    event.getEventType(), event.getCreatedAt(), event.getPayload()));
+        }
+        if (!messages.isEmpty()) {
+            sink.publish(messages);
+            outboxEventRepository.deleteAllInBatch(events);
+        }
+        return messages;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> oldestPending() {
+        return outboxEventRepository.findFirstByOrderByIdAsc().map(OutboxEvent::getCreatedAt);
+    }
+}
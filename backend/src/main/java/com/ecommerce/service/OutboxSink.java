@@ -0,0 +1,12 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.OutboxMessageDTO;
+
+import java.util.List;
+
+// Destino de los eventos del outbox (app.outbox.sink). Recibe cada lote en orden de id; si lanza
+// una excepción el lote entero se reintenta en la próxima pasada del relay.
+public interface OutboxSink {
+
+    void publish(List<OutboxMessageDTO> messages) throws Exception;
+}
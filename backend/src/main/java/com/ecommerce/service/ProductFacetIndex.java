@@ -0,0 +1,258 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.FacetCountsDTO;
+import com.ecommerce.dto.FacetValueDTO;
+import com.ecommerce.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Índice en memoria de bitmaps por columna (categoría, rango de precio, stock > 0).
+// Cada producto ocupa un slot y cada valor de faceta es un bitmap de slots.
+@Component
+public class ProductFacetIndex {
+
+    // Límites superiores (exclusivos) de cada rango de precio en centavos; el último rango no tiene tope
+    private static final long[] PRICE_LIMITS = {5_000_00L, 20_000_00L, 100_000_00L, 500_000_00L};
+    private static final String[] PRICE_RANGES = {"0-5000", "5000-20000", "20000-100000", "100000-500000", "500000+"};
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slotByProductId = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+    private int[] categoryBySlot = new int[0];
+    private int[] priceRangeBySlot = new int[0];
+
+    private long[] live = new long[0];
+    private long[] inStock = new long[0];
+    private final long[][] priceRanges = new long[PRICE_RANGES.length][0];
+    private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<long[]> categories = new ArrayList<>();
+
+    public static boolean isValidPriceRange(String priceRange) {
+        return priceRangeOrdinal(priceRange) >= 0;
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            slotByProductId.clear();
+            freeSlots.clear();
+            nextSlot = 0;
+            categoryBySlot = new int[0];
+            priceRangeBySlot = new int[0];
+            live = new long[0];
+            inStock = new long[0];
+            Arrays.fill(priceRanges, new long[0]);
+            categoryOrdinals.clear();
+            categoryNames.clear();
+            categories.clear();
+            for (Product product : products) {
+                put(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Dentro de una transacción, upsert y remove se aplican después del commit: un rollback no
+    // deja en el índice un cambio que la base no tiene
+    public void upsert(Product product) {
+        AfterCommit.run(() -> upsertNow(product));
+    }
+
+    public void remove(Long productId) {
+        AfterCommit.run(() -> removeNow(productId));
+    }
+
+    private void upsertNow(Product product) {
+        lock.writeLock().lock();
+        try {
+            put(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeNow(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByProductId.remove(productId);
+            if (slot != null) {
+                clearSlot(slot);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FacetCountsDTO count(String category, String priceRange, Boolean onlyInStock) {
+        lock.readLock().lock();
+        try {
+            long[] categoryMask = category == null ? null : categoryMask(category);
+            long[] priceMask = priceRange == null ? null : priceRanges[priceRangeOrdinal(priceRange)];
+            long[] stockMask = onlyInStock == null ? null : stockMask(onlyInStock);
+
+            long total = count(intersect(categoryMask, priceMask, stockMask));
+
+            // Cada faceta se cuenta aplicando los demás filtros pero no el propio
+            long[] forCategories = intersect(priceMask, stockMask);
+            List<FacetValueDTO> categoryCounts = new ArrayList<>();
+            for (int ordinal = 0; ordinal < categories.size(); ordinal++) {
+                long value = andCount(forCategories, categories.get(ordinal));
+                if (value > 0) {
+                    categoryCounts.add(new FacetValueDTO(categoryNames.get(ordinal), value));
+                }
+            }
+
+            long[] forPrices = intersect(categoryMask, stockMask);
+            List<FacetValueDTO> priceCounts = new ArrayList<>(PRICE_RANGES.length);
+            for (int ordinal = 0; ordinal < PRICE_RANGES.length; ordinal++) {
+                priceCounts.add(new FacetValueDTO(PRICE_RANGES[ordinal], andCount(forPrices, priceRanges[ordinal])));
+            }
+
+            long[] forStock = intersect(categoryMask, priceMask);
+            long inStockCount = andCount(forStock, inStock);
+            long outOfStockCount = count(forStock) - inStockCount;
+
+            return new FacetCountsDTO(total, categoryCounts, priceCounts, inStockCount, outOfStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Product product) {
+        Integer slot = slotByProductId.get(product.getId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+            slotByProductId.put(product.getId(), slot);
+            ensureCapacity(slot);
+        } else {
+            clearSlot(slot);
+        }
+
+        int categoryOrdinal = categoryOrdinals.computeIfAbsent(product.getCategory(), name -> {
+            categoryNames.add(name);
+            categories.add(new long[live.length]);
+            return categoryNames.size() - 1;
+        });
+        int priceOrdinal = priceRangeFor(product.getPriceCents());
+
+        categoryBySlot[slot] = categoryOrdinal;
+        priceRangeBySlot[slot] = priceOrdinal;
+        set(live, slot);
+        set(categories.get(categoryOrdinal), slot);
+        set(priceRanges[priceOrdinal], slot);
+        if (product.getStock() != null && product.getStock() > 0) {
+            set(inStock, slot);
+        }
+    }
+
+    private void clearSlot(int slot) {
+        clear(live, slot);
+        clear(inStock, slot);
+        clear(categories.get(categoryBySlot[slot]), slot);
+        clear(priceRanges[priceRangeBySlot[slot]], slot);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < categoryBySlot.length) {
+            return;
+        }
+        int slots = Math.max(1024, categoryBySlot.length * 2);
+        while (slots <= slot) {
+            slots *= 2;
+        }
+        int words = slots >>> 6;
+        categoryBySlot = Arrays.copyOf(categoryBySlot, slots);
+        priceRangeBySlot = Arrays.copyOf(priceRangeBySlot, slots);
+        live = Arrays.copyOf(live, words);
+        inStock = Arrays.copyOf(inStock, words);
+        for (int i = 0; i < priceRanges.length; i++) {
+            priceRanges[i] = Arrays.copyOf(priceRanges[i], words);
+        }
+        for (int i = 0; i < categories.size(); i++) {
+            categories.set(i, Arrays.copyOf(categories.get(i), words));
+        }
+    }
+
+    private long[] categoryMask(String category) {
+        Integer ordinal = categoryOrdinals.get(category);
+        return ordinal == null ? new long[live.length] : categories.get(ordinal);
+    }
+
+    private long[] stockMask(boolean onlyInStock) {
+        if (onlyInStock) {
+            return inStock;
+        }
+        long[] mask = new long[live.length];
+        for (int i = 0; i < mask.length; i++) {
+            mask[i] = live[i] & ~inStock[i];
+        }
+        return mask;
+    }
+
+    private long[] intersect(long[]... masks) {
+        long[] result = live.clone();
+        for (long[] mask : masks) {
+            if (mask != null) {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] &= mask[i];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int priceRangeFor(long priceCents) {
+        int ordinal = 0;
+        while (ordinal < PRICE_LIMITS.length && priceCents >= PRICE_LIMITS[ordinal]) {
+            ordinal++;
+        }
+        return ordinal;
+    }
+
+    private static int priceRangeOrdinal(String priceRange) {
+        for (int i = 0; i < PRICE_RANGES.length; i++) {
+            if (PRICE_RANGES[i].equals(priceRange)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long andCount(long[] a, long[] b) {
+        long total = 0;
+        for (int i = 0; i < a.length; i++) {
+            total += Long.bitCount(a[i] & b[i]);
+        }
+        return total;
+    }
+
+    private static long count(long[] bits) {
+        long total = 0;
+        for (long word : bits) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    private static void set(long[] bits, int slot) {
+        bits[slot >>> 6] |= 1L << slot;
+    }
+
+    private static void clear(long[] bits, int slot) {
+        bits[slot >>> 6] &= ~(1L << slot);
+    }
+}
@@ -1,16 +1,31 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.CreateProductDTO;
+import com.ecommerce.dto.FacetCountsDTO;
+import com.ecommerce.dto.ProductChangeDTO;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.SuggestionDTO;
+import com.ecommerce.dto.TopProductDTO;
 import com.ecommerce.dto.UpdateProductDTO;
+import com.ecommerce.exception.BadRequestException;
 import com.ecommerce.exception.ResourceNotFoundException;
+import com.ecommerce.model.Money;
 import com.ecommerce.model.Product;
 import com.ecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 public class ProductService {
@@ -18,38 +33,186 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockShardService stockShardService;
+
+    @Autowired
+    private RelatedProductsIndex relatedProducts;
+
+    @Autowired
+    private SalesLeaderboard salesLeaderboard;
+
+    @Autowired
+    private SuggestIndex suggestIndex;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${app.currency:" + Money.DEFAULT_CURRENCY + "}")
+    private String defaultCurrency;
+
+    // El índice de facetas se arma una vez al iniciar (después del DataLoader) y luego se mantiene con cada escritura
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildFacetIndex() {
+        productFacetIndex.rebuild(productRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
     public List<ProductDTO> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return productRepository.findAllProjected();
     }
 
+    @Transactional(readOnly = true)
     public ProductDTO getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        return productRepository.findProjectedById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", id));
-        return convertToDTO(product);
     }
 
+    // Los ids salen del índice en memoria y los productos de una sola consulta por clave primaria
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getRelatedProducts(Long id, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new BadRequestException("El límite debe estar entre 1 y 50");
+        }
+        long[] relatedIds = relatedProducts.related(id, limit);
+        if (relatedIds.length == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Producto", "id", id);
+            }
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(relatedIds.length);
+        for (long relatedId : relatedIds) {
+            ids.add(relatedId);
+        }
+        Map<Long, ProductDTO> productsById = findProjectedById(ids);
+        // En el orden del índice; los productos borrados no vuelven de la consulta
+        List<ProductDTO> related = new ArrayList<>(ids.size());
+        for (Long relatedId : ids) {
+            ProductDTO product = productsById.get(relatedId);
+            if (product != null) {
+                related.add(product);
+            }
+        }
+        return related;
+    }
+
+    // El ranking sale de SalesLeaderboard, en memoria; los productos, de una consulta por clave primaria
+    @Transactional(readOnly = true)
+    public List<TopProductDTO> getTopProducts(String window, int limit) {
+        if (!SalesLeaderboard.WINDOWS.contains(window)) {
+            throw new BadRequestException("Ventana inválida: " + window + " (1h, 24h o 7d)");
+        }
+        if (limit < 1 || limit > 50) {
+            throw new BadRequestException("El límite debe estar entre 1 y 50");
+        }
+        // Se piden algunos de más por si hay productos borrados
+        List<SalesLeaderboard.Ranked> ranking = salesLeaderboard.top(window, limit + 10);
+        if (ranking.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(ranking.size());
+        for (SalesLeaderboard.Ranked ranked : ranking) {
+            ids.add(ranked.getProductId());
+        }
+        Map<Long, ProductDTO> productsById = findProjectedById(ids);
+        List<TopProductDTO> top = new ArrayList<>(limit);
+        for (SalesLeaderboard.Ranked ranked : ranking) {
+            ProductDTO product = productsById.get(ranked.getProductId());
+            if (product != null && top.size() < limit) {
+                top.add(new TopProductDTO(product, ranked.getSold()));
+            }
+        }
+        return top;
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > 20) {
+            throw new BadRequestException("El límite debe estar entre 1 y 20");
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    public FacetCountsDTO getFacetCounts(String category, String priceRange, Boolean inStock) {
+        if (priceRange != null && !ProductFacetIndex.isValidPriceRange(priceRange)) {
+            throw new BadRequestException("Rango de precio inválido: " + priceRange);
+        }
+        return productFacetIndex.count(category, priceRange, inStock);
+    }
+
+    @Transactional
     public ProductDTO createProduct(CreateProductDTO createProductDTO) {
         Product product = convertToEntity(createProductDTO);
         Product savedProduct = productRepository.save(product);
-        return convertToDTO(savedProduct);
+        if (createProductDTO.getStockShards() != null) {
+            stockShardService.configure(savedProduct, createProductDTO.getStockShards(), savedProduct.getStock());
+        }
+        productFacetIndex.upsert(savedProduct);
+        suggestIndex.requestRebuild();
+        ProductDTO created = convertToDTO(savedProduct);
+        outboxService.record("product", created.getId(), "ProductCreated", created);
+        return created;
     }
 
+    @Transactional
     public ProductDTO updateProduct(Long id, UpdateProductDTO updateProductDTO) {
-        Product existingProduct = productRepository.findById(id)
+        Product existingProduct = productRepository.findForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Producto", "id", id));
 
+        long previousPriceCents = existingProduct.getPriceCents();
+        String previousCurrency = existingProduct.getCurrency();
+        Integer previousStock = existingProduct.getStock();
+        // Con porciones, un stock nuevo se reparte de nuevo entre ellas
+        if (updateProductDTO.getStockShards() != null
+                || (updateProductDTO.getStock() != null && StockShardService.isSharded(existingProduct))) {
+            int total = updateProductDTO.getStock() != null ? updateProductDTO.getStock()
+                    : stockShardService.currentStock(existingProduct);
+            int shardCount = updateProductDTO.getStockShards() != null ? updateProductDTO.getStockShards()
+                    : existingProduct.getStockShards();
+            stockShardService.configure(existingProduct, shardCount, total);
+        }
         updateProductFields(existingProduct, updateProductDTO);
         Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDTO(updatedProduct);
+        productFacetIndex.upsert(updatedProduct);
+        if (updateProductDTO.getName() != null || updateProductDTO.getCategory() != null) {
+            suggestIndex.requestRebuild();
+        }
+        if (previousPriceCents != updatedProduct.getPriceCents()
+                || !Objects.equals(previousCurrency, updatedProduct.getCurrency())
+                || !Objects.equals(previousStock, updatedProduct.getStock())) {
+            eventPublisher.publishEvent(new ProductChangeDTO(updatedProduct.getId(), updatedProduct.getPriceCents(),
+                    updatedProduct.getCurrency(), updatedProduct.getStock()));
+        }
+        ProductDTO updated = convertToDTO(updatedProduct);
+        outboxService.record("product", updated.getId(), "ProductUpdated", updated);
+        return updated;
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
+        if (productRepository.findForUpdate(id).isEmpty()) {
             throw new ResourceNotFoundException("Producto", "id", id);
         }
+        stockShardService.remove(id);
         productRepository.deleteById(id);
+        productFacetIndex.remove(id);
+        relatedProducts.remove(id);
+        suggestIndex.requestRebuild();
+        outboxService.record("product", id, "ProductDeleted", Map.of("id", id));
+    }
+
+    private Map<Long, ProductDTO> findProjectedById(List<Long> ids) {
+        Map<Long, ProductDTO> productsById = new HashMap<>();
+        for (ProductDTO product : productRepository.findProjectedByIdIn(ids)) {
+            productsById.put(product.getId(), product);
+        }
+        return productsById;
     }
 
     private ProductDTO convertToDTO(Product product) {
@@ -57,7 +220,8 @@ public class ProductService {
                 product.getId(),
                 product.getName(),
                 product.getDescription(),
-                product.getPrice(),
+                product.getPriceCents(),
+                product.getCurrency(),
                 product.getStock(),
                 product.getCategory(),
                 product.getImageUrl()
@@ -68,7 +232,10 @@ public class ProductService {
         Product product = new Product();
         product.setName(createProductDTO.getName());
         product.setDescription(createProductDTO.getDescription());
-        product.setPrice(createProductDTO.getPrice());
+        String currency = createProductDTO.getCurrency() != null
+                ? parseCurrency(createProductDTO.getCurrency()) : defaultCurrency;
+        product.setCurrency(currency);
+        product.setPriceCents(toMinorUnits(createProductDTO.getPrice(), currency));
         product.setStock(createProductDTO.getStock());
         product.setCategory(createProductDTO.getCategory());
         product.setImageUrl(createProductDTO.getImageUrl());
@@ -82,8 +249,15 @@ public class ProductService {
         if (updateProductDTO.getDescription() != null) {
             product.setDescription(updateProductDTO.getDescription());
         }
+        if (updateProductDTO.getCurrency() != null) {
+            // Los centavos guardados no se reinterpretan en otra moneda
+            if (updateProductDTO.getPrice() == null) {
+                throw new BadRequestException("Para cambiar la moneda hay que enviar también el precio");
+            }
+            product.setCurrency(parseCurrency(updateProductDTO.getCurrency()));
+        }
         if (updateProductDTO.getPrice() != null) {
-            product.setPrice(updateProductDTO.getPrice());
+            product.setPriceCents(toMinorUnits(updateProductDTO.getPrice(), product.getCurrency()));
         }
         if (updateProductDTO.getStock() != null) {
             product.setStock(updateProductDTO.getStock());
@@ -95,4 +269,20 @@ public class ProductService {
             product.setImageUrl(updateProductDTO.getImageUrl());
         }
     }
+
+    private static long toMinorUnits(BigDecimal price, String currency) {
+        try {
+            return Money.toMinorUnits(price, currency);
+        } catch (ArithmeticException e) {
+            throw new BadRequestException("El precio admite hasta " + Money.fractionDigits(currency) + " decimales en " + currency);
+        }
+    }
+
+    private static String parseCurrency(String currency) {
+        try {
+            return Money.normalizeCurrency(currency);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Moneda inválida: " + currency);
+        }
+    }
 }
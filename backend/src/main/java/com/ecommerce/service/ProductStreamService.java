@@ -0,0 +1,357 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductChangeDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Difusión de cambios de precio/stock por SSE. Los cambios se publican tras el commit, se
+// agrupan por producto y cada ventana se reparten a los suscriptores. Se escribe con la API
+// no bloqueante del servlet (WriteListener): solo se escribe mientras isReady() lo permite y lo
+// que no entra queda en un buffer acotado por suscriptor (agrupado por producto), que el
+// contenedor retoma en onWritePossible. Ningún hilo queda esperando a un cliente que no lee; si
+// el buffer se llena o el socket lleva más de max-stall-ms sin aceptar datos, se lo desconecta
+// (EventSource vuelve a conectarse solo). El reparto y el heartbeat corren en un scheduler propio.
+@Service
+public class ProductStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductStreamService.class);
+
+    private static final byte[] CONNECTED = ":conectado\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PING = ":ping\n\n".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.products.stream.flush-ms:200}")
+    private long flushMillis;
+
+    @Value("${app.products.stream.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+
+    @Value("${app.products.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.products.stream.max-stall-ms:10000}")
+    private long maxStallMillis;
+
+    @Value("${app.products.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, ProductChangeDTO> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private Counter dropped;
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-stream-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> run(this::dispatch), flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> run(this::heartbeat), heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        meterRegistry.gauge("products.stream.subscribers", subscribers, Set::size);
+        dropped = meterRegistry.counter("products.stream.dropped");
+    }
+
+    // productIds vacío = todos los productos. La respuesta queda abierta en modo async hasta
+    // que el cliente se va, vence timeout-ms o se lo desconecta por no leer.
+    public void subscribe(Set<Long> productIds, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        // nginx no debe acumular el stream antes de reenviarlo
+        response.setHeader("X-Accel-Buffering", "no");
+        AsyncContext async = request.startAsync();
+        async.setTimeout(timeoutMillis);
+        Subscriber subscriber = new Subscriber(async, async.getResponse().getOutputStream(), productIds);
+        async.addListener(subscriber);
+        subscribers.add(subscriber);
+        // El contenedor llama a onWritePossible en cuanto se puede escribir el saludo
+        subscriber.out.setWriteListener(subscriber);
+    }
+
+    // Sin transacción activa se recibe en el momento; con transacción, solo si hace commit
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChange(ProductChangeDTO change) {
+        pending.put(change.getId(), change);
+    }
+
+    void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        // Cada cambio se serializa una sola vez para todos los suscriptores
+        List<Event> events = new ArrayList<>(pending.size());
+        for (Long productId : pending.keySet()) {
+            ProductChangeDTO change = pending.remove(productId);
+            if (change != null) {
+                events.add(new Event(productId, encode(change)));
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(events, bufferSize, maxStallMillis, now)) {
+                subscriber.flush();
+            } else {
+                drop(subscriber);
+            }
+        }
+    }
+
+    // Comentario periódico para que los proxies no corten la conexión y detectar clientes caídos
+    void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offerHeartbeat(maxStallMillis, now)) {
+                subscriber.flush();
+            } else {
+                drop(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        subscribers.clear();
+        scheduler.shutdownNow();
+    }
+
+    // Una excepción cancelaría las ejecuciones siguientes de scheduleWithFixedDelay
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.warn("Falló el reparto de cambios de productos: {}", e.toString());
+        }
+    }
+
+    private byte[] encode(ProductChangeDTO change) {
+        try {
+            return ("event:product\ndata:" + objectMapper.writeValueAsString(change) + "\n\n")
+                    .getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el cambio del producto " + change.getId(), e);
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            dropped.increment();
+            log.debug("Suscriptor de productos desconectado por no leer a tiempo");
+        }
+        subscriber.close();
+    }
+
+    private static class Event {
+        private final Long productId;
+        private final byte[] data;
+
+        private Event(Long productId, byte[] data) {
+            this.productId = productId;
+            this.data = data;
+        }
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+        private final AsyncContext async;
+        private final ServletOutputStream out;
+        private final Set<Long> productIds;
+        // Solo un hilo escribe a la vez (el reparto o el contenedor en onWritePossible)
+        private final AtomicBoolean writing = new AtomicBoolean();
+        // Cambios aún no escritos, por id de producto (un cambio nuevo reemplaza al anterior)
+        private final Map<Long, byte[]> buffer = new LinkedHashMap<>();
+        private boolean greeting = true;
+        private boolean heartbeat;
+        // isReady() devolvió false: el contenedor avisa con onWritePossible
+        private volatile boolean blocked;
+        // Momento desde el que el socket no acepta datos (0 = acepta)
+        private volatile long blockedSince;
+        // Hay bytes escritos sin flush
+        private volatile boolean unflushed;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(AsyncContext async, ServletOutputStream out, Set<Long> productIds) {
+            this.async = async;
+            this.out = out;
+            this.productIds = productIds;
+        }
+
+        // false = el cliente no lee a tiempo y hay que desconectarlo
+        private synchronized boolean offer(List<Event> events, int limit, long maxStallMillis, long now) {
+            for (Event event : events) {
+                if (productIds.isEmpty() || productIds.contains(event.productId)) {
+                    buffer.put(event.productId, event.data);
+                }
+            }
+            return buffer.size() <= limit && !stalled(maxStallMillis, now);
+        }
+
+        private synchronized boolean offerHeartbeat(long maxStallMillis, long now) {
+            heartbeat = true;
+            return !stalled(maxStallMillis, now);
+        }
+
+        private boolean stalled(long maxStallMillis, long now) {
+            long since = blockedSince;
+            return since > 0 && now - since > maxStallMillis;
+        }
+
+        private synchronized boolean hasPending() {
+            return greeting || heartbeat || !buffer.isEmpty();
+        }
+
+        // Todo lo pendiente en un solo bloque; null si no hay nada
+        private synchronized byte[] takeBatch() {
+            if (!hasPending()) {
+                return null;
+            }
+            ByteArrayOutputStream batch = new ByteArrayOutputStream();
+            if (greeting) {
+                batch.writeBytes(CONNECTED);
+                greeting = false;
+            }
+            for (byte[] data : buffer.values()) {
+                batch.writeBytes(data);
+            }
+            buffer.clear();
+            if (heartbeat) {
+                batch.writeBytes(PING);
+                heartbeat = false;
+            }
+            return batch.toByteArray();
+        }
+
+        // Nunca bloquea: escribe mientras el socket acepte y si no, deja el resto para onWritePossible.
+        // Tras soltar el turno se vuelve a mirar, por si otro hilo dejó datos o avisó que se puede
+        // escribir mientras este escribía.
+        private void flush() {
+            while (!closed.get() && writing.compareAndSet(false, true)) {
+                try {
+                    writeWhileReady();
+                } catch (IOException | IllegalStateException e) {
+                    // El cliente cerró la conexión
+                    subscribers.remove(this);
+                    close();
+                    return;
+                } finally {
+                    writing.set(false);
+                }
+                if (blocked || (!unflushed && !hasPending())) {
+                    return;
+                }
+            }
+        }
+
+        private void writeWhileReady() throws IOException {
+            while (true) {
+                // Se marca antes de preguntar: un onWritePossible posterior siempre lo ve y lo limpia
+                blocked = true;
+                if (!out.isReady()) {
+                    if (blockedSince == 0) {
+                        blockedSince = System.currentTimeMillis();
+                    }
+                    return;
+                }
+                blocked = false;
+                blockedSince = 0;
+                if (unflushed) {
+                    unflushed = false;
+                    out.flush();
+                    continue;
+                }
+                byte[] batch = takeBatch();
+                if (batch == null) {
+                    return;
+                }
+                out.write(batch);
+                unflushed = true;
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    // No espera al cliente: el contenedor termina la respuesta por su cuenta
+                    async.complete();
+                } catch (IllegalStateException e) {
+                    // Ya estaba completada
+                }
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            blocked = false;
+            blockedSince = 0;
+            flush();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            subscribers.remove(this);
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            closed.set(true);
+            subscribers.remove(this);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            subscribers.remove(this);
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            subscribers.remove(this);
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
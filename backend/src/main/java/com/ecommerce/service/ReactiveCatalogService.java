@@ -0,0 +1,78 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CategoryDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.exception.ResourceNotFoundException;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas de catálogo sobre R2DBC: ningún hilo queda bloqueado esperando a la base y las
+// filas se emiten a medida que el cliente las consume
+@Service
+public class ReactiveCatalogService {
+
+    private static final String PRODUCT_COLUMNS = "SELECT id, name, description, price_cents, currency, stock, category, image_url FROM products";
+    private static final String CATEGORY_COLUMNS = "SELECT id, name, description FROM categories";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    // Filas pedidas por viaje al servidor (cursor) para no traer la tabla completa de una vez
+    @Value("${app.r2dbc.fetch-size:256}")
+    private int fetchSize;
+
+    public Flux<ProductDTO> getAllProducts() {
+        return databaseClient.sql(PRODUCT_COLUMNS + " ORDER BY id")
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveCatalogService::toProduct)
+                .all();
+    }
+
+    public Mono<ProductDTO> getProductById(Long id) {
+        return databaseClient.sql(PRODUCT_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCatalogService::toProduct)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Producto", "id", id)));
+    }
+
+    public Flux<CategoryDTO> getAllCategories() {
+        return databaseClient.sql(CATEGORY_COLUMNS)
+                .map(ReactiveCatalogService::toCategory)
+                .all();
+    }
+
+    public Mono<CategoryDTO> getCategoryById(String id) {
+        return databaseClient.sql(CATEGORY_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveCatalogService::toCategory)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Categoría", "id", id)));
+    }
+
+    private static ProductDTO toProduct(Readable row) {
+        return new ProductDTO(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("price_cents", Long.class),
+                row.get("currency", String.class),
+                row.get("stock", Integer.class),
+                row.get("category", String.class),
+                row.get("image_url", String.class)
+        );
+    }
+
+    private static CategoryDTO toCategory(Readable row) {
+        return new CategoryDTO(
+                row.get("id", String.class),
+                row.get("name", String.class),
+                row.get("description", String.class)
+        );
+    }
+}
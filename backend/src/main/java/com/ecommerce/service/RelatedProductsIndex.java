@@ -0,0 +1,302 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.CartItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// "Comprados juntos": por producto, los productos que aparecieron con él en carritos y checkouts,
+// con un peso que suma cada coincidencia. Se mantiene en memoria a medida que llegan las señales;
+// cada producto guarda a lo sumo app.related.max-neighbors vecinos en un min-heap por peso, así
+// el de menor peso sale primero cuando entra uno nuevo. Los pesos decaen periódicamente para que
+// cuente más lo reciente, y el índice se guarda en disco para no arrancar en frío.
+@Component
+public class RelatedProductsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedProductsIndex.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x52454c31; // "REL1"
+    private static final float MIN_WEIGHT = 0.01f;
+    // Tope de productos por canasta: los pares crecen con el cuadrado
+    private static final int MAX_BASKET = 50;
+
+    @Value("${app.related.max-neighbors:50}")
+    private int maxNeighbors;
+
+    @Value("${app.related.cart-weight:0.25}")
+    private float cartWeight;
+
+    @Value("${app.related.checkout-weight:1.0}")
+    private float checkoutWeight;
+
+    @Value("${app.related.decay-factor:0.9}")
+    private float decayFactor;
+
+    @Value("${app.related.snapshot-path:}")
+    private String snapshotPath;
+
+    private final Map<Long, Neighbors> neighborsByProduct = new ConcurrentHashMap<>();
+
+    // Un producto agregado a un carrito que ya tenía otros. Como recordCheckout y remove, dentro de
+    // una transacción se aplica después del commit, así un rollback no deja pesos de algo que no pasó.
+    public void recordCart(Long productId, Collection<Long> otherProductIds) {
+        List<Long> others = List.copyOf(otherProductIds);
+        AfterCommit.run(() -> {
+            int paired = 0;
+            for (Long other : others) {
+                if (!other.equals(productId) && paired++ < MAX_BASKET) {
+                    addPair(productId, other, cartWeight);
+                }
+            }
+        });
+    }
+
+    public void recordCheckout(List<Long> productIds) {
+        List<Long> basket = List.copyOf(productIds);
+        AfterCommit.run(() -> recordBasket(basket, checkoutWeight));
+    }
+
+    // Ids de los productos más relacionados, de mayor a menor peso
+    public long[] related(Long productId, int limit) {
+        Neighbors neighbors = neighborsByProduct.get(productId);
+        return neighbors == null ? new long[0] : neighbors.top(limit);
+    }
+
+    public void remove(Long productId) {
+        AfterCommit.run(() -> neighborsByProduct.remove(productId));
+    }
+
+    // Arranque: sin snapshot se siembra con los carritos guardados
+    public void seed(Collection<CartItemRepository.CartHold> cartHolds) {
+        Map<String, List<Long>> baskets = new HashMap<>();
+        for (CartItemRepository.CartHold cartHold : cartHolds) {
+            baskets.computeIfAbsent(cartHold.getEmail(), email -> new ArrayList<>()).add(cartHold.getProductId());
+        }
+        for (List<Long> basket : baskets.values()) {
+            recordBasket(basket, cartWeight);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.related.decay-ms:3600000}", initialDelayString = "${app.related.decay-ms:3600000}")
+    public void decay() {
+        // Decae y quita dentro del compute: una señal que llega a la vez espera y no se pierde en una
+        // lista ya sacada del mapa
+        for (Long productId : neighborsByProduct.keySet()) {
+            neighborsByProduct.computeIfPresent(productId, (id, neighbors) -> neighbors.decay(decayFactor) ? null : neighbors);
+        }
+    }
+
+    // Escribe en un archivo temporal y lo mueve encima del anterior, así nunca queda uno a medias
+    @Scheduled(fixedDelayString = "${app.related.snapshot-ms:300000}", initialDelayString = "${app.related.snapshot-ms:300000}")
+    @PreDestroy
+    public void snapshot() {
+        if (snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Path.of(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                for (Map.Entry<Long, Neighbors> entry : neighborsByProduct.entrySet()) {
+                    entry.getValue().write(entry.getKey(), out);
+                }
+                out.writeLong(-1);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el índice de productos relacionados en {}: {}", target, e.getMessage());
+        }
+    }
+
+    // Carga el último snapshot; false si no hay o no se puede leer
+    public boolean restore() {
+        if (snapshotPath.isBlank() || !Files.exists(Path.of(snapshotPath))) {
+            return false;
+        }
+        Map<Long, Neighbors> restored = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(snapshotPath))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("formato desconocido");
+            }
+            long productId;
+            while ((productId = in.readLong()) >= 0) {
+                Neighbors neighbors = new Neighbors();
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    neighbors.add(in.readLong(), in.readFloat(), maxNeighbors);
+                }
+                restored.put(productId, neighbors);
+            }
+        } catch (IOException e) {
+            log.warn("Se ignora el snapshot de productos relacionados {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+        neighborsByProduct.clear();
+        neighborsByProduct.putAll(restored);
+        log.info("Índice de productos relacionados restaurado desde {} ({} productos)", snapshotPath, restored.size());
+        return true;
+    }
+
+    private void recordBasket(List<Long> productIds, float weight) {
+        int size = Math.min(productIds.size(), MAX_BASKET);
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (!productIds.get(i).equals(productIds.get(j))) {
+                    addPair(productIds.get(i), productIds.get(j), weight);
+                }
+            }
+        }
+    }
+
+    private void addPair(Long a, Long b, float weight) {
+        addNeighbor(a, b, weight);
+        addNeighbor(b, a, weight);
+    }
+
+    // Dentro del compute, como decay: así nunca se suma a una lista que decay acaba de quitar
+    private void addNeighbor(Long productId, long neighborId, float weight) {
+        neighborsByProduct.compute(productId, (id, neighbors) -> {
+            Neighbors target = neighbors == null ? new Neighbors() : neighbors;
+            target.add(neighborId, weight, maxNeighbors);
+            return target;
+        });
+    }
+
+    // Min-heap por peso sobre dos arreglos paralelos (sin objetos por vecino)
+    private static final class Neighbors {
+        private long[] ids = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private synchronized void add(long id, float weight, int capacity) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    weights[i] += weight;
+                    siftDown(i);
+                    return;
+                }
+            }
+            if (size < capacity) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, Math.min(size * 2, capacity));
+                    weights = Arrays.copyOf(weights, ids.length);
+                }
+                ids[size] = id;
+                weights[size] = weight;
+                siftUp(size++);
+                return;
+            }
+            // Lleno: el nuevo reemplaza al de menor peso y hereda ese peso (space-saving), si no
+            // un producto que recién empieza a venderse junto a este nunca podría entrar
+            ids[0] = id;
+            weights[0] += weight;
+            siftDown(0);
+        }
+
+        private synchronized long[] top(int limit) {
+            int count = Math.min(limit, size);
+            long[] result = new long[count];
+            boolean[] taken = new boolean[size];
+            for (int n = 0; n < count; n++) {
+                int best = -1;
+                for (int i = 0; i < size; i++) {
+                    if (!taken[i] && (best < 0 || weights[i] > weights[best])) {
+                        best = i;
+                    }
+                }
+                taken[best] = true;
+                result[n] = ids[best];
+            }
+            return result;
+        }
+
+        // Multiplicar todos por el mismo factor no altera el heap; los que quedan casi en cero se
+        // descartan y se rearma. Devuelve true si no quedó ninguno.
+        private synchronized boolean decay(float factor) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                float weight = weights[i] * factor;
+                if (weight >= MIN_WEIGHT) {
+                    ids[kept] = ids[i];
+                    weights[kept++] = weight;
+                }
+            }
+            size = kept;
+            for (int i = size / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+            return size == 0;
+        }
+
+        private synchronized void write(long productId, DataOutputStream out) throws IOException {
+            out.writeLong(productId);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(ids[i]);
+                out.writeFloat(weights[i]);
+            }
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (weights[parent] <= weights[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && weights[left] < weights[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && weights[right] < weights[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float weight = weights[a];
+            weights[a] = weights[b];
+            weights[b] = weight;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.ecommerce.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Más vendidos por ventana de tiempo (1h, 24h, 7d) sin consultar las ventas. Cada ventana es un
+// anillo de paneles; cada panel tiene un count-min sketch (unidades vendidas por producto, con
+// error acotado) y un top-K space-saving (candidatos a más vendido). La ventana mantiene además
+// la suma de los sketches de sus paneles, así estimar un producto cuesta una lectura por fila.
+// Al rotar, el panel vencido se resta de la suma y se vacía. La memoria es fija: no depende de
+// cuántos productos ni cuántas ventas haya.
+@Component
+public class SalesLeaderboard {
+
+    public static final List<String> WINDOWS = List.of("1h", "24h", "7d");
+
+    private static final long HOUR = 3_600_000L;
+
+    @Value("${app.top.sketch-width:1024}")
+    private int sketchWidth;
+
+    @Value("${app.top.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${app.top.candidates:100}")
+    private int candidates;
+
+    private final Map<String, Window> windows = new HashMap<>();
+
+    @PostConstruct
+    void init() {
+        windows.put("1h", new Window(12, HOUR / 12));
+        windows.put("24h", new Window(24, HOUR));
+        windows.put("7d", new Window(28, 6 * HOUR));
+    }
+
+    // Dentro de una transacción (el checkout) cuenta recién después del commit: una compra que hace
+    // rollback no suma ventas
+    public void record(Long productId, int quantity) {
+        AfterCommit.run(() -> {
+            long now = System.currentTimeMillis();
+            for (Window window : windows.values()) {
+                window.record(productId, quantity, now);
+            }
+        });
+    }
+
+    // window debe ser uno de WINDOWS
+    public List<Ranked> top(String window, int limit) {
+        return windows.get(window).top(limit, System.currentTimeMillis());
+    }
+
+    public long estimate(String window, long productId) {
+        return windows.get(window).estimate(productId, System.currentTimeMillis());
+    }
+
+    public static final class Ranked {
+        private final long productId;
+        private final long sold;
+
+        private Ranked(long productId, long sold) {
+            this.productId = productId;
+            this.sold = sold;
+        }
+
+        public long getProductId() { return productId; }
+        public long getSold() { return sold; }
+    }
+
+    private final class Window {
+        private final long paneMillis;
+        private final CountMinSketch[] sketches;
+        private final SpaceSaving[] tops;
+        private final CountMinSketch total = new CountMinSketch(sketchDepth, sketchWidth);
+        private long currentPane;
+
+        private Window(int panes, long paneMillis) {
+            this.paneMillis = paneMillis;
+            sketches = new CountMinSketch[panes];
+            tops = new SpaceSaving[panes];
+            for (int i = 0; i < panes; i++) {
+                sketches[i] = new CountMinSketch(sketchDepth, sketchWidth);
+                tops[i] = new SpaceSaving(candidates);
+            }
+            currentPane = System.currentTimeMillis() / paneMillis;
+        }
+
+        private synchronized void record(long productId, int quantity, long now) {
+            rotate(now);
+            int slot = (int) (currentPane % sketches.length);
+            sketches[slot].add(productId, quantity);
+            total.add(productId, quantity);
+            tops[slot].add(productId, quantity);
+        }
+
+        private synchronized long estimate(long productId, long now) {
+            rotate(now);
+            return total.estimate(productId);
+        }
+
+        // Candidatos: los top-K de cada panel; el conteo sale de la suma de sketches de la ventana
+        private synchronized List<Ranked> top(int limit, long now) {
+            rotate(now);
+            Set<Long> seen = new HashSet<>();
+            List<Ranked> ranked = new ArrayList<>();
+            for (SpaceSaving top : tops) {
+                for (int i = 0; i < top.size; i++) {
+                    long productId = top.ids[i];
+                    if (seen.add(productId)) {
+                        ranked.add(new Ranked(productId, total.estimate(productId)));
+                    }
+                }
+            }
+            ranked.sort((a, b) -> Long.compare(b.sold, a.sold));
+            return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+        }
+
+        private void rotate(long now) {
+            long pane = now / paneMillis;
+            // Si pasó más de una vuelta entera alcanza con vaciar cada panel una vez
+            long first = Math.max(currentPane + 1, pane - sketches.length + 1);
+            for (long expired = first; expired <= pane; expired++) {
+                int slot = (int) (expired % sketches.length);
+                total.subtract(sketches[slot]);
+                sketches[slot].clear();
+                tops[slot].clear();
+            }
+            currentPane = Math.max(currentPane, pane);
+        }
+    }
+
+    private static final class CountMinSketch {
+        private static final long[] SEEDS = {
+                0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+                0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x27D4EB2F165667C5L, 0x94D049BB133111EBL
+        };
+
+        private final long[][] counts;
+
+        private CountMinSketch(int depth, int width) {
+            counts = new long[Math.min(depth, SEEDS.length)][width];
+        }
+
+        private void add(long key, long amount) {
+            for (int row = 0; row < counts.length; row++) {
+                counts[row][bucket(key, row)] += amount;
+            }
+        }
+
+        private long estimate(long key) {
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < counts.length; row++) {
+                min = Math.min(min, counts[row][bucket(key, row)]);
+            }
+            return min;
+        }
+
+        private void subtract(CountMinSketch other) {
+            for (int row = 0; row < counts.length; row++) {
+                long[] target = counts[row];
+                long[] source = other.counts[row];
+                for (int i = 0; i < target.length; i++) {
+                    target[i] -= source[i];
+                }
+            }
+        }
+
+        private void clear() {
+            for (long[] row : counts) {
+                Arrays.fill(row, 0);
+            }
+        }
+
+        private int bucket(long key, int row) {
+            long h = (key ^ SEEDS[row]) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+            h *= 0x94D049BB133111EBL;
+            h ^= h >>> 29;
+            return (int) Math.floorMod(h, (long) counts[row].length);
+        }
+    }
+
+    // Space-saving: con la tabla llena, el producto nuevo reemplaza al de menor conteo y hereda
+    // ese conteo, así ningún producto que venda mucho en el panel puede quedar afuera
+    private static final class SpaceSaving {
+        private final long[] ids;
+        private final long[] counts;
+        private int size;
+
+        private SpaceSaving(int capacity) {
+            ids = new long[capacity];
+            counts = new long[capacity];
+        }
+
+        private void add(long productId, long amount) {
+            int min = 0;
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == productId) {
+                    counts[i] += amount;
+                    return;
+                }
+                if (counts[i] < counts[min]) {
+                    min = i;
+                }
+            }
+            if (size < ids.length) {
+                ids[size] = productId;
+                counts[size++] = amount;
+            } else {
+                ids[min] = productId;
+                counts[min] += amount;
+            }
+        }
+
+        private void clear() {
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.repository.CartItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reservas blandas de stock en memoria: cada producto en un carrito retiene su cantidad durante
+// app.cart.reservation.ttl-seconds (se renueva con cada cambio) y el disponible para los demás es
+// stock - reservas activas. El contador por producto es un AtomicInteger, así consultar el
+// disponible no bloquea. Las reservas vencidas las libera una rueda de temporización: un arreglo
+// de colas indexado por tick, que al avanzar solo revisa la cola del tick actual. Los cambios hechos
+// dentro de una transacción se deshacen si hace rollback, así un carrito que no se guardó no deja
+// stock retenido.
+@Component
+public class StockReservationLedger {
+
+    private static final int WHEEL_SIZE = 512;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.cart.reservation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cart.reservation.ttl-seconds:900}")
+    private long ttlSeconds;
+
+    @Value("${app.cart.reservation.tick-ms:1000}")
+    private long tickMillis;
+
+    private final Map<Long, AtomicInteger> reservedByProduct = new ConcurrentHashMap<>();
+    private final Map<HoldKey, Hold> holds = new ConcurrentHashMap<>();
+    @SuppressWarnings("unchecked")
+    private final Queue<Hold>[] wheel = new Queue[WHEEL_SIZE];
+    private long lastTick;
+    private Counter expired;
+
+    @PostConstruct
+    void init() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        lastTick = System.currentTimeMillis() / tickMillis;
+        meterRegistry.gauge("cart.reservations.active", holds, Map::size);
+        expired = meterRegistry.counter("cart.reservations.expired");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Stock que puede tomar este usuario: no cuenta lo que él mismo ya tiene reservado
+    public int available(String email, Long productId, int stock) {
+        if (!enabled) {
+            return stock;
+        }
+        AtomicInteger reserved = reservedByProduct.get(productId);
+        Hold own = holds.get(new HoldKey(email, productId));
+        return stock - (reserved == null ? 0 : reserved.get()) + (own == null ? 0 : own.quantity);
+    }
+
+    // Fija la reserva del usuario sobre el producto en quantity (no suma) y reinicia su vencimiento.
+    // Bajar una cantidad siempre se permite; subirla exige stock libre.
+    public void reserve(String email, Long productId, int quantity, int stock) {
+        if (!enabled) {
+            if (stock < quantity) {
+                throw new BadRequestException("Stock insuficiente");
+            }
+            return;
+        }
+        if (quantity <= 0) {
+            release(email, productId);
+            return;
+        }
+        holds.compute(new HoldKey(email, productId), (key, previous) -> {
+            int previousQuantity = previous == null ? 0 : previous.quantity;
+            AtomicInteger reserved = reservedByProduct.computeIfAbsent(productId, id -> new AtomicInteger());
+            while (true) {
+                int current = reserved.get();
+                int next = current - previousQuantity + quantity;
+                if (quantity > previousQuantity && next > stock) {
+                    throw new BadRequestException("Stock insuficiente: disponibles " + Math.max(stock - current + previousQuantity, 0));
+                }
+                if (reserved.compareAndSet(current, next)) {
+                    break;
+                }
+            }
+            rememberForRollback(key, previous);
+            return schedule(new Hold(key, quantity, System.currentTimeMillis() + ttlSeconds * 1000));
+        });
+    }
+
+    public void release(String email, Long productId) {
+        if (enabled) {
+            holds.computeIfPresent(new HoldKey(email, productId), (key, hold) -> {
+                rememberForRollback(key, hold);
+                return unreserve(hold);
+            });
+        }
+    }
+
+    public void releaseAll(String email) {
+        if (enabled) {
+            for (HoldKey key : holds.keySet()) {
+                if (key.email.equals(email)) {
+                    holds.computeIfPresent(key, (k, hold) -> {
+                        rememberForRollback(k, hold);
+                        return unreserve(hold);
+                    });
+                }
+            }
+        }
+    }
+
+    // Vuelve a armar las reservas desde los carritos guardados (al iniciar); el vencimiento cuenta
+    // desde el último cambio de cada ítem (los ya vencidos no reservan) y no se valida stock
+    // porque los carritos ya existían. Se suma a lo que haya sin borrar nada: una reserva ya tomada
+    // para la misma clave es más reciente que la fila leída y se deja como está.
+    public void rebuild(Collection<CartItemRepository.CartHold> cartHolds) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (CartItemRepository.CartHold cartHold : cartHolds) {
+            long deadline = cartHold.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                    + ttlSeconds * 1000;
+            if (deadline <= now) {
+                continue;
+            }
+            holds.computeIfAbsent(new HoldKey(cartHold.getEmail(), cartHold.getProductId()), key -> {
+                reservedByProduct.computeIfAbsent(key.productId, id -> new AtomicInteger()).addAndGet(cartHold.getQuantity());
+                return schedule(new Hold(key, cartHold.getQuantity(), deadline));
+            });
+        }
+    }
+
+    // Procesa los ticks vencidos desde la última pasada. Cada cola guarda también reservas de
+    // vueltas futuras (TTL mayor que la rueda) y reservas ya reemplazadas, que se descartan.
+    @Scheduled(fixedDelayString = "${app.cart.reservation.tick-ms:1000}")
+    public void advance() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMillis;
+        long firstTick = Math.max(lastTick + 1, currentTick - WHEEL_SIZE + 1);
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Queue<Hold> bucket = wheel[(int) (tick % WHEEL_SIZE)];
+            List<Hold> laterRounds = new ArrayList<>();
+            Hold hold;
+            while ((hold = bucket.poll()) != null) {
+                if (holds.get(hold.key) != hold) {
+                    continue;
+                }
+                if (hold.deadline > now) {
+                    laterRounds.add(hold);
+                } else {
+                    expire(hold);
+                }
+            }
+            bucket.addAll(laterRounds);
+        }
+        lastTick = currentTick;
+    }
+
+    private void expire(Hold hold) {
+        // Solo si sigue siendo la reserva vigente: un cambio en el carrito la pudo reemplazar
+        if (holds.computeIfPresent(hold.key, (key, current) -> current == hold ? unreserve(current) : current) == null) {
+            expired.increment();
+        }
+    }
+
+    // Guarda la reserva que había antes del primer cambio de la clave en la transacción en curso
+    // (null = ninguna); fuera de una transacción el cambio es definitivo
+    private void rememberForRollback(HoldKey key, Hold previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<HoldKey, Hold> previousHolds = (Map<HoldKey, Hold>) TransactionSynchronizationManager.getResource(this);
+        if (previousHolds == null) {
+            Map<HoldKey, Hold> created = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StockReservationLedger.this);
+                    if (status == STATUS_ROLLED_BACK) {
+                        restore(created);
+                    }
+                }
+            });
+            previousHolds = created;
+        }
+        if (!previousHolds.containsKey(key)) {
+            previousHolds.put(key, previous);
+        }
+    }
+
+    // Vuelve cada clave a la reserva previa, salvo que esta ya haya vencido mientras tanto
+    private void restore(Map<HoldKey, Hold> previousHolds) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<HoldKey, Hold> entry : previousHolds.entrySet()) {
+            Hold previous = entry.getValue();
+            holds.compute(entry.getKey(), (key, current) -> {
+                if (current != null) {
+                    unreserve(current);
+                }
+                if (previous == null || previous.deadline <= now) {
+                    return null;
+                }
+                reservedByProduct.computeIfAbsent(key.productId, id -> new AtomicInteger()).addAndGet(previous.quantity);
+                return schedule(new Hold(key, previous.quantity, previous.deadline));
+            });
+        }
+    }
+
+    private Hold schedule(Hold hold) {
+        long tick = (hold.deadline + tickMillis - 1) / tickMillis;
+        wheel[(int) (tick % WHEEL_SIZE)].add(hold);
+        return hold;
+    }
+
+    // Se llama dentro del compute de la reserva: devuelve null para quitarla del mapa
+    private Hold unreserve(Hold hold) {
+        reservedByProduct.get(hold.key.productId).addAndGet(-hold.quantity);
+        return null;
+    }
+
+    private static final class HoldKey {
+        private final String email;
+        private final Long productId;
+
+        private HoldKey(String email, Long productId) {
+            this.email = email;
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof HoldKey key && email.equals(key.email) && productId.equals(key.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(email, productId);
+        }
+    }
+
+    private static final class Hold {
+        private final HoldKey key;
+        private final int quantity;
+        private final long deadline;
+
+        private Hold(HoldKey key, int quantity, long deadline) {
+            this.key = key;
+            this.quantity = quantity;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.service;
+
+import com.ecommerce.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Rebalanceo periódico de los productos con porciones: uno por transacción (ver
+// StockShardService.rebalance), así cada bloqueo de fila dura solo lo que tarda ese producto
+@Component
+public class StockShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockShardRebalancer.class);
+
+    @Autowired
+    private StockShardService stockShardService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Scheduled(fixedDelayString = "${app.stock.shards.rebalance-ms:5000}")
+    public void rebalance() {
+        for (Long productId : productRepository.findShardedIds()) {
+            try {
+                stockShardService.rebalance(productId);
+            } catch (RuntimeException e) {
+                log.warn("Falló el rebalanceo de stock del producto {}: {}", productId, e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductChangeDTO;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductStockShard;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.ProductStockShardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Stock repartido en varias filas para los productos muy demandados (Product.stockShards).
+// Con una sola fila todos los checkouts del producto hacen cola sobre el mismo bloqueo; con N
+// porciones cada checkout descuenta de una elegida al azar y solo compite con los que cayeron en
+// la misma. products.stock queda como suma cacheada que refresca el rebalanceo periódico.
+@Service
+public class StockShardService {
+
+    @Autowired
+    private ProductStockShardRepository shardRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    private Counter fallbacks;
+    private Counter rebalances;
+
+    @PostConstruct
+    void init() {
+        fallbacks = meterRegistry.counter("stock.shards.fallbacks");
+        rebalances = meterRegistry.counter("stock.shards.rebalances");
+    }
+
+    public static boolean isSharded(Product product) {
+        return product.getStockShards() != null;
+    }
+
+    // Stock real del producto; con porciones las deja bloqueadas hasta el fin de la transacción
+    @Transactional
+    public int currentStock(Product product) {
+        if (!isSharded(product)) {
+            return product.getStock();
+        }
+        int total = 0;
+        for (ProductStockShard shard : shardRepository.findForUpdate(product.getId())) {
+            total += shard.getStock();
+        }
+        return total;
+    }
+
+    // Reparte total en shardCount porciones iguales; 1 o menos vuelve a una sola fila en products
+    @Transactional
+    public void configure(Product product, int shardCount, int total) {
+        if (isSharded(product)) {
+            shardRepository.deleteByProductId(product.getId());
+        }
+        product.setStock(total);
+        if (shardCount <= 1) {
+            product.setStockShards(null);
+            return;
+        }
+        product.setStockShards(shardCount);
+        List<ProductStockShard> shards = new ArrayList<>(shardCount);
+        for (int shardNo = 0; shardNo < shardCount; shardNo++) {
+            ProductStockShard shard = new ProductStockShard();
+            shard.setProduct(product);
+            shard.setShardNo(shardNo);
+            shard.setStock(evenShare(total, shardCount, shardNo));
+            shards.add(shard);
+        }
+        shardRepository.saveAll(shards);
+    }
+
+    @Transactional
+    public void remove(Long productId) {
+        shardRepository.deleteByProductId(productId);
+    }
+
+    // Descuenta quantity de una porción al azar que tenga stock suficiente, probando las demás en
+    // orden. Si ninguna alcanza sola, bloquea todas y descuenta de varias.
+    @Transactional
+    public void decrement(Product product, int quantity) {
+        int shardCount = product.getStockShards();
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (shardRepository.decrement(product.getId(), (start + i) % shardCount, quantity) == 1) {
+                return;
+            }
+        }
+
+        fallbacks.increment();
+        List<ProductStockShard> shards = shardRepository.findForUpdate(product.getId());
+        int total = 0;
+        for (ProductStockShard shard : shards) {
+            total += shard.getStock();
+        }
+        if (total < quantity) {
+            throw new BadRequestException("Stock insuficiente para " + product.getName());
+        }
+        int remaining = quantity;
+        for (ProductStockShard shard : shards) {
+            int taken = Math.min(shard.getStock(), remaining);
+            shard.setStock(shard.getStock() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+
+    // Refresca la suma cacheada en products.stock y reparte de nuevo las porciones desparejas,
+    // para que el azar no siga cayendo en porciones vacías (lo llama StockShardRebalancer). Bloquea
+    // la fila del producto antes de leer las porciones, como updateProduct y deleteProduct: así no
+    // pisa un cambio concurrente del producto y su evento queda en el outbox en orden de commit.
+    @Transactional
+    public void rebalance(Long productId) {
+        Product product = productRepository.findForUpdate(productId).orElse(null);
+        if (product == null || !isSharded(product)) {
+            return;
+        }
+        int total = rebalanceShards(product);
+        if (!Objects.equals(product.getStock(), total)) {
+            product.setStock(total);
+            productFacetIndex.upsert(product);
+            ProductChangeDTO change = new ProductChangeDTO(product.getId(), product.getPriceCents(),
+                    product.getCurrency(), product.getStock());
+            eventPublisher.publishEvent(change);
+            outboxService.record("product", product.getId(), "ProductStockChanged", change);
+        }
+    }
+
+    private int rebalanceShards(Product product) {
+        List<Integer> stocks = shardRepository.findStocks(product.getId());
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int stock : stocks) {
+            total += stock;
+            min = Math.min(min, stock);
+            max = Math.max(max, stock);
+        }
+        // Sin bloquear primero: solo se bloquea si alguna porción quedó por debajo de la mitad del promedio
+        if (stocks.isEmpty() || max - min <= 1 || min * 2L * stocks.size() >= total) {
+            return total;
+        }
+
+        List<ProductStockShard> shards = shardRepository.findForUpdate(product.getId());
+        total = 0;
+        for (ProductStockShard shard : shards) {
+            total += shard.getStock();
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setStock(evenShare(total, shards.size(), i));
+        }
+        rebalances.increment();
+        return total;
+    }
+
+    private static int evenShare(int total, int shardCount, int shardNo) {
+        return total / shardCount + (shardNo < total % shardCount ? 1 : 0);
+    }
+}
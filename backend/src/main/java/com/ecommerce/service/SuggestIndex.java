@@ -0,0 +1,329 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.SuggestionDTO;
+import com.ecommerce.model.Category;
+import com.ecommerce.repository.CategoryRepository;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+// Autocompletado sobre los nombres de productos y categorías. Las palabras normalizadas (minúsculas,
+// sin acentos) van a un arreglo ordenado, cada una con sus entradas de más a menos popular; un
+// prefijo se resuelve con una búsqueda binaria sobre las palabras. El índice
+// es inmutable: las escrituras del catálogo piden una reconstrucción que corre en un hilo aparte
+// y reemplaza la referencia de una vez, así las consultas nunca esperan.
+@Component
+public class SuggestIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    // Tope de entradas revisadas por consulta, para cuando las palabras anteriores de la consulta
+    // descartan casi todo lo que empieza con el prefijo
+    private static final int MAX_SCAN = 5000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private SalesLeaderboard salesLeaderboard;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private ExecutorService rebuilder;
+
+    @PostConstruct
+    void init() {
+        rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "suggest-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        requestRebuild();
+    }
+
+    // Los pesos dependen de las ventas recientes, que cambian sin escrituras al catálogo
+    @Scheduled(fixedDelayString = "${app.suggest.refresh-ms:300000}", initialDelayString = "${app.suggest.refresh-ms:300000}")
+    public void refresh() {
+        requestRebuild();
+    }
+
+    // Dentro de una transacción espera al commit para leer lo escrito. Varios pedidos seguidos
+    // se juntan en una sola reconstrucción.
+    public void requestRebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scheduleRebuild();
+                }
+            });
+        } else {
+            scheduleRebuild();
+        }
+    }
+
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        return snapshot.suggest(tokenize(prefix), limit);
+    }
+
+    // Reemplaza el índice completo; la popularidad de cada entrada ordena las sugerencias
+    public void replace(List<Entry> entries) {
+        snapshot = new Snapshot(entries);
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    replace(loadEntries());
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo reconstruir el índice de autocompletado: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    // Productos: 1 + unidades vendidas en 7 días. Categorías: cantidad de productos.
+    private List<Entry> loadEntries() {
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Integer> productsByCategory = new HashMap<>();
+        for (ProductRepository.SuggestRow row : productRepository.findSuggestRows()) {
+            entries.add(new Entry("product", row.getId().toString(), row.getName(),
+                    1 + salesLeaderboard.estimate("7d", row.getId())));
+            productsByCategory.merge(row.getCategory(), 1, Integer::sum);
+        }
+        for (Category category : categoryRepository.findAll()) {
+            entries.add(new Entry("category", category.getId(), category.getName(),
+                    productsByCategory.getOrDefault(category.getId(), 0)));
+        }
+        return entries;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    public static final class Entry {
+        private final String type;
+        private final String id;
+        private final String text;
+        private final long weight;
+        private final String[] tokens;
+
+        public Entry(String type, String id, String text, long weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+            this.tokens = tokenize(text);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Entry[] entries;
+        // Palabras distintas ordenadas; las entradas de words[i] son postings[postingStart[i]..postingStart[i+1]),
+        // de la más a la menos popular
+        private final String[] words;
+        private final int[] postingStart;
+        private final int[] postings;
+        // Árbol de segmentos sobre las palabras: cada nodo guarda la palabra de su tramo con la
+        // entrada más popular (hojas en bestWord[words.length + i])
+        private final int[] bestWord;
+
+        private Snapshot(List<Entry> source) {
+            entries = source.toArray(new Entry[0]);
+            Map<String, List<Integer>> byWord = new HashMap<>();
+            for (int i = 0; i < entries.length; i++) {
+                for (String token : new LinkedHashSet<>(Arrays.asList(entries[i].tokens))) {
+                    byWord.computeIfAbsent(token, word -> new ArrayList<>()).add(i);
+                }
+            }
+            words = byWord.keySet().toArray(new String[0]);
+            Arrays.sort(words);
+            postingStart = new int[words.length + 1];
+            List<Integer> all = new ArrayList<>();
+            for (int w = 0; w < words.length; w++) {
+                List<Integer> owners = byWord.get(words[w]);
+                owners.sort((a, b) -> compare(entries[a], entries[b]));
+                all.addAll(owners);
+                postingStart[w + 1] = all.size();
+            }
+            postings = all.stream().mapToInt(Integer::intValue).toArray();
+            bestWord = new int[2 * words.length];
+            for (int w = 0; w < words.length; w++) {
+                bestWord[words.length + w] = w;
+            }
+            for (int node = words.length - 1; node > 0; node--) {
+                bestWord[node] = better(bestWord[2 * node], bestWord[2 * node + 1]);
+            }
+        }
+
+        // La última palabra de la consulta es la que se está escribiendo y se busca como prefijo;
+        // las anteriores tienen que empezar alguna palabra de la entrada. Las listas de las palabras
+        // que empiezan con el prefijo ya están ordenadas por popularidad: se mezclan con un heap y se
+        // corta al juntar limit sugerencias. El heap arranca con un solo rango de palabras; al sacar
+        // la mejor de un rango se parte en dos, así un prefijo corto no carga todas sus palabras.
+        private List<SuggestionDTO> suggest(String[] query, int limit) {
+            if (query.length == 0) {
+                return List.of();
+            }
+            String prefix = query[query.length - 1];
+            int first = lowerBound(prefix);
+            // Las palabras normalizadas no llevan '\uffff': todas las que empiezan con el prefijo van antes
+            int last = lowerBound(prefix + '\uffff');
+            if (first == last) {
+                return List.of();
+            }
+            PriorityQueue<Head> heads = new PriorityQueue<>(
+                    (a, b) -> compare(entries[postings[a.position]], entries[postings[b.position]]));
+            heads.add(range(first, last));
+
+            List<SuggestionDTO> suggestions = new ArrayList<>(limit);
+            Set<Integer> seen = new HashSet<>();
+            int scanned = 0;
+            while (!heads.isEmpty() && suggestions.size() < limit && scanned++ < MAX_SCAN) {
+                Head head = heads.poll();
+                int owner = postings[head.position];
+                if (head.position + 1 < postingStart[head.word + 1]) {
+                    heads.add(new Head(head.word, head.position + 1, head.word, head.word + 1));
+                }
+                if (head.low < head.word) {
+                    heads.add(range(head.low, head.word));
+                }
+                if (head.word + 1 < head.high) {
+                    heads.add(range(head.word + 1, head.high));
+                }
+                Entry entry = entries[owner];
+                if (seen.add(owner) && matchesAll(entry, query)) {
+                    suggestions.add(new SuggestionDTO(entry.type, entry.id, entry.text));
+                }
+            }
+            return suggestions;
+        }
+
+        // La palabra de [low, high) con la entrada más popular, parada en su primera entrada
+        private Head range(int low, int high) {
+            int word = -1;
+            for (int l = low + words.length, h = high + words.length; l < h; l >>>= 1, h >>>= 1) {
+                if ((l & 1) == 1) {
+                    word = better(word, bestWord[l++]);
+                }
+                if ((h & 1) == 1) {
+                    word = better(word, bestWord[--h]);
+                }
+            }
+            return new Head(word, postingStart[word], low, high);
+        }
+
+        private int better(int a, int b) {
+            if (a < 0) {
+                return b;
+            }
+            return compare(entries[postings[postingStart[a]]], entries[postings[postingStart[b]]]) <= 0 ? a : b;
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = words.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (words[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static boolean matchesAll(Entry entry, String[] query) {
+            for (int q = 0; q < query.length - 1; q++) {
+                boolean found = false;
+                for (String token : entry.tokens) {
+                    if (token.startsWith(query[q])) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Posición en las entradas de una palabra; low/high es el tramo de palabras que todavía
+        // no entró al heap y del que esta es la mejor (para las siguientes entradas, solo ella)
+        private static final class Head {
+            private final int word;
+            private final int position;
+            private final int low;
+            private final int high;
+
+            private Head(int word, int position, int low, int high) {
+                this.word = word;
+                this.position = position;
+                this.low = low;
+                this.high = high;
+            }
+        }
+
+        // Más peso primero y, a igual peso, el texto más corto
+        private static int compare(Entry a, Entry b) {
+            if (a.weight != b.weight) {
+                return Long.compare(b.weight, a.weight);
+            }
+            return Integer.compare(a.text.length(), b.text.length());
+        }
+    }
+}
@@ -10,6 +10,7 @@ import com.ecommerce.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -32,6 +33,7 @@ public class UserProfileService {
 
     private final String UPLOAD_DIR = "uploads/profiles/";
 
+    @Transactional(readOnly = true)
     public UserDTO getProfile(String token) {
         String email = extractEmailFromToken(token);
         User user = getUserByEmail(email);
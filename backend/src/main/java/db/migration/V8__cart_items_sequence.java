@@ -0,0 +1,29 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Secuencia para los ids de cart_items (ver CartItem). En Java porque START WITH tiene que quedar
+// por encima de los ids ya generados por IDENTITY y un script SQL no puede calcularlo de forma
+// portable. Hibernate toma de a 50 ids (INCREMENT BY = allocationSize) y cada valor de la secuencia
+// es el último del bloque, así que el primero que entrega es START WITH - 49.
+public class V8__cart_items_sequence extends BaseJavaMigration {
+
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rows = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM cart_items")) {
+                rows.next();
+                maxId = rows.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE cart_items_seq START WITH " + (maxId + INCREMENT)
+                    + " INCREMENT BY " + INCREMENT);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Precio en centavos (BIGINT) con moneda explícita en lugar de products.price (double precision)
+
+ALTER TABLE products ADD COLUMN price_cents BIGINT;
+ALTER TABLE products ADD COLUMN currency VARCHAR(3);
+
+-- Los precios existentes están en pesos; se redondea al centavo
+UPDATE products
+SET price_cents = ROUND(CAST(price AS NUMERIC(19, 4)) * 100),
+    currency = 'ARS';
+
+ALTER TABLE products ALTER COLUMN price_cents SET NOT NULL;
+ALTER TABLE products ALTER COLUMN currency SET NOT NULL;
+ALTER TABLE products DROP COLUMN price;
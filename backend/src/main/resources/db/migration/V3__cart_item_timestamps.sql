@@ -0,0 +1,13 @@
+-- Fechas de alta y último cambio en cart_items, para purgar carritos abandonados y rearmar
+-- las reservas de stock al iniciar
+
+ALTER TABLE cart_items ADD COLUMN created_at TIMESTAMP(6);
+ALTER TABLE cart_items ADD COLUMN updated_at TIMESTAMP(6);
+
+-- Sin historial: los ítems existentes cuentan desde ahora y se purgan recién al vencer la retención
+UPDATE cart_items
+SET created_at = LOCALTIMESTAMP,
+    updated_at = LOCALTIMESTAMP;
+
+ALTER TABLE cart_items ALTER COLUMN created_at SET NOT NULL;
+ALTER TABLE cart_items ALTER COLUMN updated_at SET NOT NULL;
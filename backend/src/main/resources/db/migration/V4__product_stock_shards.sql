@@ -0,0 +1,13 @@
+-- Stock en porciones para productos muy demandados (ver StockShardService)
+
+ALTER TABLE products ADD COLUMN stock_shards INTEGER;
+
+CREATE TABLE product_stock_shards (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT NOT NULL,
+    shard_no INTEGER NOT NULL,
+    stock INTEGER NOT NULL,
+    CONSTRAINT pk_product_stock_shards PRIMARY KEY (id),
+    CONSTRAINT uk_product_stock_shards_product_shard UNIQUE (product_id, shard_no),
+    CONSTRAINT fk_product_stock_shards_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
@@ -0,0 +1,19 @@
+-- Outbox transaccional y sus particiones (ver OutboxService)
+
+CREATE TABLE outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    aggregate_type VARCHAR(30) NOT NULL,
+    aggregate_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    partition_no INTEGER NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_outbox_partition_id ON outbox (partition_no, id);
+
+CREATE TABLE outbox_partitions (
+    partition_no INTEGER NOT NULL,
+    CONSTRAINT pk_outbox_partitions PRIMARY KEY (partition_no)
+);
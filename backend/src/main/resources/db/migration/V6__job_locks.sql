@@ -0,0 +1,8 @@
+-- Leases de los jobs que corren en una sola instancia a la vez (ver JobLockService)
+
+CREATE TABLE job_locks (
+    name VARCHAR(64) NOT NULL,
+    locked_until TIMESTAMP(6) NOT NULL,
+    locked_by VARCHAR(255),
+    CONSTRAINT pk_job_locks PRIMARY KEY (name)
+);
@@ -0,0 +1,14 @@
+-- Índices para las consultas de los repositorios (ver RepositoryQueryPlanTest). users.email y
+-- users.username ya tienen índice por su UNIQUE; product_stock_shards lo tiene por (product_id, shard_no).
+-- IF NOT EXISTS: en una base grande se pueden crear antes con CREATE INDEX CONCURRENTLY y el mismo
+-- nombre, así esta migración no bloquea escrituras.
+
+-- Carrito por usuario (findByUser, findProjectedByUserEmail, deleteByUser) y vencimiento por
+-- usuario en la purga de carritos abandonados (max(updated_at) sale del índice)
+CREATE INDEX IF NOT EXISTS idx_cart_items_user_updated ON cart_items (user_id, updated_at);
+
+-- Clave foránea: sin índice, borrar un producto recorre cart_items entera para validarla
+CREATE INDEX IF NOT EXISTS idx_cart_items_product ON cart_items (product_id);
+
+-- Productos con stock en porciones (findSharded), que el rebalanceo consulta cada pocos segundos
+CREATE INDEX IF NOT EXISTS idx_products_stock_shards ON products (stock_shards);
@@ -0,0 +1,173 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.config.RequestQueryStats;
+import com.ecommerce.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Falla el build si una consulta selectiva de los repositorios recorre una tabla entera. Arranca
+// con el perfil dev (esquema de Flyway y datos de DataLoader en H2), ejecuta cada consulta una vez
+// para capturar el SQL que genera Hibernate y pide su EXPLAIN: un "tableScan" en el plan, o un
+// índice que solo existe en H2, significa que en PostgreSQL falta un índice. Las lecturas de tablas completas a propósito (findAll, findAllHolds,
+// findSuggestRows, la agrupación de la purga de carritos) no se incluyen.
+@SpringBootTest(properties = {
+        "app.related.snapshot-path=",
+        "app.cart.purge.enabled=false"
+})
+@ActiveProfiles("dev")
+class RepositoryQueryPlanTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductStockShardRepository productStockShardRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void selectiveQueriesUseIndexes() throws Exception {
+        User user = userRepository.findByEmail("usuario1@email.com").orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail(user.getEmail()));
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername(user.getUsername()));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail(user.getEmail()));
+        queries.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername(user.getUsername()));
+        queries.put("CartItemRepository.findByUser", () -> cartItemRepository.findByUser(user));
+        queries.put("CartItemRepository.findProjectedByUserEmail", () -> cartItemRepository.findProjectedByUserEmail(user.getEmail()));
+        queries.put("CartItemRepository.deleteExpiredCarts", () -> cartItemRepository.deleteExpiredCarts(List.of(user.getId()), now));
+        queries.put("ProductRepository.findProjectedById", () -> productRepository.findProjectedById(1L));
+        queries.put("ProductRepository.findProjectedByIdIn", () -> productRepository.findProjectedByIdIn(List.of(1L, 2L)));
+        queries.put("ProductRepository.findForUpdate", () -> productRepository.findForUpdate(1L));
+        queries.put("ProductRepository.findUnshardedForUpdate", () -> productRepository.findUnshardedForUpdate(List.of(1L, 2L)));
+        queries.put("ProductRepository.findShardedIds", () -> productRepository.findShardedIds());
+        queries.put("ProductStockShardRepository.decrement", () -> productStockShardRepository.decrement(1L, 0, 1));
+        queries.put("ProductStockShardRepository.findStocks", () -> productStockShardRepository.findStocks(1L));
+        queries.put("ProductStockShardRepository.deleteByProductId", () -> productStockShardRepository.deleteByProductId(1L));
+        queries.put("OutboxEventRepository.findBatch", () -> outboxEventRepository.findBatch(List.of(0, 1), PageRequest.of(0, 10)));
+        queries.put("JobLockRepository.acquire", () -> jobLockRepository.acquire("test", "test", now, now));
+
+        Set<String> foreignKeyOnlyIndexes = foreignKeyOnlyIndexes();
+        List<String> scans = new ArrayList<>();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            String sql = capture(query.getKey(), query.getValue());
+            String plan = explain(sql);
+            boolean scan = plan.contains(".tableScan");
+            for (String index : foreignKeyOnlyIndexes) {
+                scan |= plan.contains("PUBLIC." + index + ":");
+            }
+            if (scan) {
+                scans.add(query.getKey() + ":\n" + plan);
+            }
+        }
+        assertTrue(scans.isEmpty(), "Consultas que recorren la tabla entera:\n\n" + String.join("\n\n", scans));
+    }
+
+    // Dentro de una transacción que se descarta, así las escrituras no cambian los datos
+    private String capture(String name, Runnable query) {
+        RequestQueryStats stats = RequestQueryStats.begin();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                query.run();
+                status.setRollbackOnly();
+            });
+        } finally {
+            RequestQueryStats.end();
+        }
+        assertEquals(1, stats.getQueryCount(), name + " debería ejecutar una sola sentencia");
+        return stats.getMostRepeatedSql();
+    }
+
+    // H2 crea un índice propio para cada clave foránea y PostgreSQL no: en PostgreSQL un plan que
+    // usa uno de esos índices es un recorrido completo, salvo que otro índice de la tabla empiece
+    // por las mismas columnas. Devuelve los índices de claves foráneas sin ese respaldo.
+    private Set<String> foreignKeyOnlyIndexes() throws Exception {
+        Map<String, String> tableByIndex = new HashMap<>();
+        Map<String, List<String>> columnsByIndex = new HashMap<>();
+        Set<String> foreignKeyIndexes = new HashSet<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rows = statement.executeQuery("SELECT INDEX_NAME, TABLE_NAME, COLUMN_NAME " +
+                    "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE TABLE_SCHEMA = 'PUBLIC' ORDER BY INDEX_NAME, ORDINAL_POSITION")) {
+                while (rows.next()) {
+                    tableByIndex.put(rows.getString(1), rows.getString(2));
+                    columnsByIndex.computeIfAbsent(rows.getString(1), index -> new ArrayList<>()).add(rows.getString(3));
+                }
+            }
+            try (ResultSet rows = statement.executeQuery("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                    "WHERE TABLE_SCHEMA = 'PUBLIC' AND CONSTRAINT_TYPE = 'FOREIGN KEY'")) {
+                while (rows.next()) {
+                    foreignKeyIndexes.add(rows.getString(1));
+                }
+            }
+        }
+        Set<String> uncovered = new HashSet<>();
+        for (String foreignKeyIndex : foreignKeyIndexes) {
+            List<String> columns = columnsByIndex.get(foreignKeyIndex);
+            boolean covered = false;
+            for (Map.Entry<String, List<String>> index : columnsByIndex.entrySet()) {
+                covered |= !foreignKeyIndexes.contains(index.getKey())
+                        && tableByIndex.get(index.getKey()).equals(tableByIndex.get(foreignKeyIndex))
+                        && index.getValue().size() >= columns.size()
+                        && index.getValue().subList(0, columns.size()).equals(columns);
+            }
+            if (!covered) {
+                uncovered.add(foreignKeyIndex);
+            }
+        }
+        return uncovered;
+    }
+
+    private String explain(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet plan = statement.executeQuery()) {
+            StringBuilder text = new StringBuilder();
+            while (plan.next()) {
+                text.append(plan.getString(1)).append('\n');
+            }
+            return text.toString();
+        }
+    }
+}
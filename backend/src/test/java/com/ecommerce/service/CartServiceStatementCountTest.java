@@ -0,0 +1,64 @@
+package com.ecommerce.service;
+
+import com.ecommerce.config.RequestQueryStats;
+import com.ecommerce.dto.CartLineDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Reemplazar el carrito ejecuta la misma cantidad de sentencias con 2 o con 12 productos: los
+// INSERT de cart_items van en un solo lote JDBC (ids por secuencia, hibernate.jdbc.batch_size).
+@SpringBootTest(properties = {
+        "app.related.snapshot-path=",
+        "app.cart.purge.enabled=false"
+})
+@ActiveProfiles("dev")
+class CartServiceStatementCountTest {
+
+    private static final String EMAIL = "maria.garcia@email.com";
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void replaceCartBatchesInserts() {
+        // La primera llamada además pide a cart_items_seq el bloque de ids
+        replaceCart(1);
+        RequestQueryStats few = replaceCart(2);
+        RequestQueryStats many = replaceCart(12);
+
+        assertEquals(few.getQueryCount(), many.getQueryCount(),
+                "La cantidad de sentencias no debería depender de la cantidad de productos");
+        assertEquals(1, many.getMaxRepeats(), "Sentencia repetida: " + many.getMostRepeatedSql());
+    }
+
+    // Dentro de una transacción que se descarta, así el carrito queda como estaba
+    private RequestQueryStats replaceCart(int products) {
+        List<CartLineDTO> lines = new ArrayList<>();
+        for (long productId = 1; productId <= products; productId++) {
+            lines.add(new CartLineDTO(productId, 1));
+        }
+        RequestQueryStats stats = RequestQueryStats.begin();
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                cartService.replaceCart(EMAIL, lines);
+                status.setRollbackOnly();
+            });
+        } finally {
+            RequestQueryStats.end();
+        }
+        return stats;
+    }
+}
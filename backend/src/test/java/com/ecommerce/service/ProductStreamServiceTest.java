@@ -0,0 +1,130 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductChangeDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Un suscriptor que nunca lee no demora a los demás: las escrituras no bloquean ningún hilo y,
+// cuando su socket pasa max-stall-ms sin aceptar datos, se lo desconecta.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "management.server.port=0",
+        "app.related.snapshot-path=",
+        "app.cart.purge.enabled=false",
+        "app.products.stream.flush-ms=20",
+        "app.products.stream.heartbeat-ms=100",
+        "app.products.stream.buffer-size=5000",
+        "app.products.stream.max-stall-ms=300"
+})
+@ActiveProfiles("dev")
+class ProductStreamServiceTest {
+
+    private static final int PRODUCTS = 2000;
+    private static final long MARKER_PRODUCT = 1;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductStreamService productStreamService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void stalledSubscriberDoesNotDelayOthers() throws Exception {
+        double droppedBefore = dropped();
+
+        // Cliente que se conecta y no lee nunca: el socket se llena enseguida
+        Socket stalled = new Socket();
+        stalled.setReceiveBufferSize(1024);
+        stalled.connect(new InetSocketAddress("localhost", port));
+        OutputStream request = stalled.getOutputStream();
+        request.write(("GET /api/products/stream HTTP/1.1\r\nHost: localhost\r\n"
+                + "Accept: text/event-stream\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        request.flush();
+
+        // Cliente que lee todo y espera el cambio marcado con stock -1
+        HttpClient client = HttpClient.newHttpClient();
+        CompletableFuture<Boolean> marker = client.sendAsync(
+                        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/products/stream"))
+                                .header("Accept", "text/event-stream").build(),
+                        HttpResponse.BodyHandlers.ofLines())
+                .thenApply(response -> {
+                    try (Stream<String> lines = response.body()) {
+                        return lines.anyMatch(line -> line.startsWith("data:")
+                                && line.contains("\"id\":" + MARKER_PRODUCT + ",")
+                                && line.contains("\"stock\":-1"));
+                    }
+                });
+
+        try {
+            waitFor(() -> subscribers() == 2, 10_000, "No se conectaron los dos suscriptores");
+
+            // Cada vuelta son ~140 KB por suscriptor, hasta que el que no lee queda desconectado
+            int round = 0;
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (dropped() == droppedBefore && System.currentTimeMillis() < deadline) {
+                for (long productId = 1; productId <= PRODUCTS; productId++) {
+                    productStreamService.onProductChange(new ProductChangeDTO(productId, 1000L + round, "ARS", round));
+                }
+                round++;
+                Thread.sleep(20);
+            }
+            assertEquals(droppedBefore + 1, dropped(), "El suscriptor que no lee debería quedar desconectado");
+            assertEquals(1, subscribers());
+
+            // Ningún hilo quedó trabado escribiéndole: al leer lo que quedaba en el socket, la
+            // respuesta termina y el servidor cierra la conexión
+            stalled.setSoTimeout(10_000);
+            InputStream response = stalled.getInputStream();
+            byte[] chunk = new byte[64 * 1024];
+            long closeDeadline = System.currentTimeMillis() + 10_000;
+            while (response.read(chunk) != -1) {
+                assertTrue(System.currentTimeMillis() < closeDeadline, "El servidor no cerró la conexión del suscriptor trabado");
+            }
+
+            productStreamService.onProductChange(new ProductChangeDTO(MARKER_PRODUCT, 1000L, "ARS", -1));
+            assertTrue(marker.get(5, TimeUnit.SECONDS), "El suscriptor que lee debería recibir el último cambio");
+        } finally {
+            marker.cancel(true);
+            stalled.close();
+        }
+    }
+
+    private double dropped() {
+        return meterRegistry.get("products.stream.dropped").counter().count();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("products.stream.subscribers").gauge().value();
+    }
+
+    private static void waitFor(BooleanSupplier condition, long timeoutMillis, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.dto.CartItemDTO;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Money;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.service.CartService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo de armar los DTOs de un carrito: copia desde entidades (CartService.convertToDTO)
+// contra el constructor plano que usa la proyección JPQL de CartItemRepository, la respuesta JSON
+// completa del carrito y el total del checkout.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CartItemDtoBenchmark {
+
+    @Param({"1", "10", "40"})
+    private int items;
+
+    private CartService cartService;
+    private MethodHandle convertToDTO;
+    private List<CartItem> cart;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() throws Exception {
+        cartService = new CartService();
+        convertToDTO = MethodHandles.privateLookupIn(CartService.class, MethodHandles.lookup())
+                .findVirtual(CartService.class, "convertToDTO", MethodType.methodType(CartItemDTO.class, CartItem.class));
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("usuario1@email.com");
+        objectMapper = JacksonBenchmark.applicationMapper(true);
+        cart = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            cart.add(SampleData.cartItem(i, user));
+        }
+    }
+
+    @Benchmark
+    public void convertFromEntities(Blackhole blackhole) throws Throwable {
+        for (CartItem item : cart) {
+            blackhole.consume((CartItemDTO) convertToDTO.invokeExact(cartService, item));
+        }
+    }
+
+    @Benchmark
+    public void projectionConstructor(Blackhole blackhole) {
+        for (CartItem item : cart) {
+            Product product = item.getProduct();
+            blackhole.consume(new CartItemDTO(item.getId(), product.getId(), product.getName(),
+                    product.getDescription(), product.getPriceCents(), product.getCurrency(), product.getStock(), product.getCategory(),
+                    product.getImageUrl(), item.getQuantity()));
+        }
+    }
+
+    // GET /api/cart completo: DTOs más JSON
+    @Benchmark
+    public byte[] renderCart() throws Throwable {
+        List<CartItemDTO> dtos = new ArrayList<>(cart.size());
+        for (CartItem item : cart) {
+            dtos.add((CartItemDTO) convertToDTO.invokeExact(cartService, item));
+        }
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    // Misma cuenta que CartService.checkout
+    @Benchmark
+    public long checkoutTotal() {
+        long totalCents = 0;
+        for (CartItem item : cart) {
+            totalCents = Math.addExact(totalCents, Money.multiply(item.getProduct().getPriceCents(), item.getQuantity()));
+        }
+        return totalCents;
+    }
+}
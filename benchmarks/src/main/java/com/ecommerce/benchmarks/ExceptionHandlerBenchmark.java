@@ -0,0 +1,67 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.dto.AddToCartDTO;
+import com.ecommerce.exception.BadRequestException;
+import com.ecommerce.exception.ErrorResponse;
+import com.ecommerce.exception.GlobalExceptionHandler;
+import com.ecommerce.exception.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// Armado de las respuestas de error de GlobalExceptionHandler (sin el costo de lanzar la excepción)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private WebRequest request;
+    private ResourceNotFoundException notFound;
+    private BadRequestException badRequest;
+    private MethodArgumentNotValidException invalid;
+
+    @Setup
+    public void setup() throws Exception {
+        handler = new GlobalExceptionHandler();
+        request = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/cart/add"));
+        notFound = new ResourceNotFoundException("Producto", "id", 42L);
+        badRequest = new BadRequestException("Stock insuficiente");
+
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(new AddToCartDTO(), "addToCartDTO");
+        bindingResult.rejectValue("productId", "NotNull", "El ID del producto es obligatorio");
+        bindingResult.rejectValue("quantity", "Min", "La cantidad debe ser mayor a 0");
+        MethodParameter parameter = new MethodParameter(
+                ExceptionHandlerBenchmark.class.getDeclaredMethod("target", AddToCartDTO.class), 0);
+        invalid = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        return handler.handleResourceNotFoundException(notFound, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> badRequest() {
+        return handler.handleBadRequestException(badRequest, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailed() {
+        return handler.handleValidationExceptions(invalid, request);
+    }
+
+    @SuppressWarnings("unused")
+    private void target(AddToCartDTO addToCartDTO) {
+    }
+}
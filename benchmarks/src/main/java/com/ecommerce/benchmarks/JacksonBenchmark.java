@@ -0,0 +1,66 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.config.JacksonConfig;
+import com.ecommerce.config.MinorUnitsPropertyWriter;
+import com.ecommerce.dto.ProductDTO;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de GET /api/products con la configuración de Jackson que arma Spring Boot,
+// con y sin el módulo Blackbird
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class JacksonBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"false", "true"})
+    private boolean blackbird;
+
+    private ObjectWriter writer;
+    private List<ProductDTO> products;
+
+    // Equivalente a JacksonConfig + spring.jackson.default-property-inclusion=non_null
+    static ObjectMapper applicationMapper(boolean blackbird) {
+        return applicationMapper(new JsonFactory(), blackbird);
+    }
+
+    static ObjectMapper applicationMapper(JsonFactory factory, boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .filters(JacksonConfig.defaultFilters());
+        if (blackbird) {
+            builder.modulesToInstall(MinorUnitsPropertyWriter.module(), new BlackbirdModule());
+        } else {
+            builder.modulesToInstall(MinorUnitsPropertyWriter.module());
+        }
+        return builder.build();
+    }
+
+    @Setup
+    public void setup() {
+        writer = applicationMapper(blackbird).writerFor(new TypeReference<List<ProductDTO>>() {});
+        products = SampleData.products(size);
+    }
+
+    @Benchmark
+    public byte[] serializeProductList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(products);
+    }
+}
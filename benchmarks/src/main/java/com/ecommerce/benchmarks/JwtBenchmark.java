@@ -0,0 +1,75 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.security.JwtKeyStore;
+import com.ecommerce.security.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JwtBenchmark {
+
+    private static final String EMAIL = "usuario1@email.com";
+    private static final String LEGACY_SECRET = "BenchmarkSecretKeyLongEnoughForHmacSha256Signing";
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String legacyToken;
+
+    @Setup
+    public void setup() {
+        // Sin jwt.keys.dir el almacén genera una clave RSA efímera
+        JwtKeyStore keyStore = new JwtKeyStore();
+        ReflectionTestUtils.setField(keyStore, "keysDir", "");
+        ReflectionTestUtils.setField(keyStore, "activeKid", "");
+        ReflectionTestUtils.invokeMethod(keyStore, "load");
+
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", LEGACY_SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "legacyHs256Enabled", true);
+        ReflectionTestUtils.setField(jwtUtil, "keyStore", keyStore);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        token = jwtUtil.generateToken(EMAIL, Set.of("user"));
+        legacyToken = Jwts.builder()
+                .setSubject(EMAIL)
+                .setExpiration(new Date(System.currentTimeMillis() + 86_400_000L))
+                .signWith(Keys.hmacShaKeyFor(LEGACY_SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(EMAIL, Set.of("user"));
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtUtil.extractEmail(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, EMAIL);
+    }
+
+    // Token HS256 sin kid, aceptado mientras dure la transición
+    @Benchmark
+    public String extractEmailLegacy() {
+        return jwtUtil.extractEmail(legacyToken);
+    }
+}
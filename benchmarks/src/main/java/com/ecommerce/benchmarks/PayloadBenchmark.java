@@ -0,0 +1,70 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.config.JacksonConfig;
+import com.ecommerce.dto.ProductDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Bytes en el cable y CPU de GET /api/products: todos los campos vs ?fields=, sin comprimir vs gzip.
+// El contador auxiliar "wireBytes" informa el tamaño de la respuesta de cada combinación.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PayloadBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"all", "id,name,price,imageUrl"})
+    private String fields;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectWriter writer;
+    private List<ProductDTO> products;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Wire {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setup() {
+        ObjectWriter listWriter = JacksonBenchmark.applicationMapper(true)
+                .writerFor(new TypeReference<List<ProductDTO>>() {});
+        writer = "all".equals(fields) ? listWriter
+                : listWriter.with(JacksonConfig.onlyFields(new LinkedHashSet<>(Set.of(fields.split(",")))));
+        products = SampleData.products(size);
+    }
+
+    @Benchmark
+    public byte[] writeResponse(Wire wire) throws IOException {
+        byte[] json = writer.writeValueAsBytes(products);
+        byte[] body = "gzip".equals(encoding) ? gzip(json) : json;
+        wire.wireBytes = body.length;
+        return body;
+    }
+
+    // Mismo nivel de compresión por defecto que usa Tomcat
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Datos de prueba deterministas (semilla fija) para que las corridas sean comparables
+final class SampleData {
+
+    private static final String[] CATEGORIES = {"electronicos", "ropa", "hogar", "deportes", "libros", "belleza"};
+    private static final String DESCRIPTION =
+            "Producto de ejemplo con una descripción de longitud similar a la del catálogo real, " +
+            "pensada para medir el costo de serializar textos largos en los listados.";
+
+    private SampleData() {}
+
+    static List<ProductDTO> products(int count) {
+        Random random = new Random(42);
+        List<ProductDTO> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(new ProductDTO((long) i + 1, "Producto " + (i + 1), DESCRIPTION,
+                    (1000 + random.nextInt(1_000_000)) * 100L, "ARS", random.nextInt(100),
+                    CATEGORIES[random.nextInt(CATEGORIES.length)],
+                    "https://picsum.photos/300/200?random=" + (i + 1)));
+        }
+        return products;
+    }
+
+    static Product product(int index) {
+        Product product = new Product();
+        product.setId((long) index + 1);
+        product.setName("Producto " + (index + 1));
+        product.setDescription(DESCRIPTION);
+        product.setPriceCents((1000 + index * 250) * 100L);
+        product.setStock(10 + index);
+        product.setCategory(CATEGORIES[index % CATEGORIES.length]);
+        product.setImageUrl("https://picsum.photos/300/200?random=" + (index + 1));
+        return product;
+    }
+
+    static CartItem cartItem(int index, User user) {
+        CartItem item = new CartItem();
+        item.setId((long) index + 1);
+        item.setUser(user);
+        item.setProduct(product(index));
+        item.setQuantity(1 + index % 3);
+        return item;
+    }
+}
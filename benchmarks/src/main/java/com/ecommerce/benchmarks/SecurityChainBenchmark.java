@@ -0,0 +1,140 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.config.ReplicaRoutingDataSource;
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.security.JwtKeyStore;
+import com.ecommerce.security.JwtUtil;
+import com.ecommerce.security.LoadSheddingFilter;
+import com.ecommerce.security.RateLimitFilter;
+import com.ecommerce.security.SecurityConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Costo por request de la cadena de seguridad real (SecurityConfig) para estáticos, rutas públicas
+// con y sin token y una ruta autenticada. El usuario se resuelve en memoria para medir solo la cadena;
+// el límite de requests y el load shedding quedan desactivados para que no corten el benchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SecurityChainBenchmark {
+
+    private static final String EMAIL = "usuario1@email.com";
+
+    private AnnotationConfigWebApplicationContext context;
+    private Filter springSecurityFilterChain;
+    private String authorization;
+
+    @Configuration
+    @Import({SecurityConfig.class, JwtAuthenticationFilter.class, RateLimitFilter.class, LoadSheddingFilter.class,
+            JwtKeyStore.class, JwtUtil.class})
+    static class SecurityChainConfig {
+
+        @Bean
+        static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer() {
+            return new PropertySourcesPlaceholderConfigurer();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        UserDetailsService userDetailsService() {
+            return email -> User.withUsername(email).password("sin-uso").roles("USER").build();
+        }
+
+        @Bean
+        ReplicaRoutingDataSource routingDataSource() {
+            return new ReplicaRoutingDataSource(new HikariDataSource(), List.of(), "SELECT 0", 0);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        context = new AnnotationConfigWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "jwt.expiration", "86400000",
+                "app.rate-limit.enabled", "false",
+                "app.load-shedding.enabled", "false")));
+        context.register(SecurityChainConfig.class);
+        context.refresh();
+        springSecurityFilterChain = context.getBean("springSecurityFilterChain", Filter.class);
+        authorization = "Bearer " + context.getBean(JwtUtil.class).generateToken(EMAIL, Set.of("user"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int staticAsset() throws ServletException, IOException {
+        return run(request("/index.html"));
+    }
+
+    @Benchmark
+    public int publicAnonymous() throws ServletException, IOException {
+        return run(request("/api/products"));
+    }
+
+    // El frontend manda el token en todas las llamadas; en rutas públicas no debería costar nada
+    @Benchmark
+    public int publicWithToken() throws ServletException, IOException {
+        MockHttpServletRequest request = request("/api/products");
+        request.addHeader("Authorization", authorization);
+        return run(request);
+    }
+
+    @Benchmark
+    public int authenticated() throws ServletException, IOException {
+        MockHttpServletRequest request = request("/api/cart");
+        request.addHeader("Authorization", authorization);
+        return run(request);
+    }
+
+    // Como lo arma Tomcat con el DispatcherServlet en "/": los matchers de seguridad usan el servlet path
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private int run(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        springSecurityFilterChain.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Checkouts concurrentes de un mismo producto: descuento sobre la fila única de products
+// (shards = 1) contra el descuento en una porción al azar de product_stock_shards, con las
+// mismas consultas que StockShardService. Cada operación es una transacción que descuenta y
+// después escribe otra fila, como el resto del checkout, para que el bloqueo dure lo que dura en
+// la aplicación. Con -p jdbcUrl=jdbc:postgresql://... se mide contra PostgreSQL (usuario y clave
+// en -p user / -p password).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class StockContentionBenchmark {
+
+    private static final long PRODUCT_ID = 1;
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"1", "8", "32"})
+    private int shards;
+
+    @Param("jdbc:h2:mem:stock-contention;LOCK_TIMEOUT=10000")
+    private String jdbcUrl;
+
+    @Param("sa")
+    private String user;
+
+    @Param("")
+    private String password;
+
+    // Mantiene viva la base en memoria de H2 entre conexiones
+    private Connection schemaConnection;
+
+    @Setup(Level.Trial)
+    public void createSchema() throws SQLException {
+        schemaConnection = DriverManager.getConnection(jdbcUrl, user, password);
+        try (Statement statement = schemaConnection.createStatement()) {
+            statement.execute("drop table if exists checkout_log");
+            statement.execute("drop table if exists product_stock_shards");
+            statement.execute("drop table if exists products");
+            statement.execute("create table products (id bigint primary key, stock integer not null)");
+            statement.execute("create table product_stock_shards (product_id bigint not null, shard_no integer not null, " +
+                    "stock integer not null, primary key (product_id, shard_no))");
+            statement.execute("create table checkout_log (id bigint generated by default as identity primary key, " +
+                    "product_id bigint not null, shard_no integer not null)");
+            statement.execute("insert into products values (" + PRODUCT_ID + ", " + STOCK + ")");
+            for (int shardNo = 0; shardNo < shards; shardNo++) {
+                statement.execute("insert into product_stock_shards values (" + PRODUCT_ID + ", " + shardNo + ", " + STOCK / shards + ")");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeSchema() throws SQLException {
+        schemaConnection.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        private Connection connection;
+        private PreparedStatement decrementProduct;
+        private PreparedStatement decrementShard;
+        private PreparedStatement log;
+
+        @Setup(Level.Trial)
+        public void open(StockContentionBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.jdbcUrl, benchmark.user, benchmark.password);
+            connection.setAutoCommit(false);
+            decrementProduct = connection.prepareStatement("update products set stock = stock - ? where id = ? and stock >= ?");
+            decrementShard = connection.prepareStatement(
+                    "update product_stock_shards set stock = stock - ? where product_id = ? and shard_no = ? and stock >= ?");
+            log = connection.prepareStatement("insert into checkout_log (product_id, shard_no) values (?, ?)");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int checkout(Session session) throws SQLException {
+        int shardNo = shards == 1 ? decrementProduct(session) : decrementShard(session);
+        session.log.setLong(1, PRODUCT_ID);
+        session.log.setInt(2, shardNo);
+        session.log.executeUpdate();
+        session.connection.commit();
+        return shardNo;
+    }
+
+    private static int decrementProduct(Session session) throws SQLException {
+        session.decrementProduct.setInt(1, 1);
+        session.decrementProduct.setLong(2, PRODUCT_ID);
+        session.decrementProduct.setInt(3, 1);
+        if (session.decrementProduct.executeUpdate() != 1) {
+            throw new IllegalStateException("Sin stock");
+        }
+        return 0;
+    }
+
+    private int decrementShard(Session session) throws SQLException {
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            int shardNo = (start + i) % shards;
+            session.decrementShard.setInt(1, 1);
+            session.decrementShard.setLong(2, PRODUCT_ID);
+            session.decrementShard.setInt(3, shardNo);
+            session.decrementShard.setInt(4, 1);
+            if (session.decrementShard.executeUpdate() == 1) {
+                return shardNo;
+            }
+        }
+        throw new IllegalStateException("Sin stock");
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.dto.SuggestionDTO;
+import com.ecommerce.service.SuggestIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Consulta del autocompletado (GET /api/products/suggest) con catálogos de distinto tamaño:
+// un prefijo de una letra, uno de una palabra, uno de dos palabras y un dígito (el peor caso:
+// empiezan con él cientos de palabras distintas). build mide la reconstrucción que corre fuera del hilo de la consulta.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SuggestIndexBenchmark {
+
+    private static final String[] BRANDS = {"Samsung", "Lenovo", "Apple", "Philips", "Nike", "Adidas", "Sony", "Xiaomi", "Motorola", "Noblex"};
+    private static final String[] ITEMS = {"Notebook", "Celular", "Auriculares", "Zapatillas", "Remera", "Televisor", "Heladera", "Licuadora", "Mochila", "Cámara"};
+    private static final String[] DETAILS = {"Pro", "Max", "Ultra", "Lite", "Plus", "Negro", "Blanco", "Inalámbrico", "Deportivo", "Edición 2026"};
+
+    @Param({"1000", "100000"})
+    private int products;
+
+    @Param({"n", "note", "notebook len", "1"})
+    private String prefix;
+
+    private SuggestIndex index;
+    private List<SuggestIndex.Entry> entries;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        entries = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            String name = ITEMS[random.nextInt(ITEMS.length)] + " " + BRANDS[random.nextInt(BRANDS.length)] + " "
+                    + DETAILS[random.nextInt(DETAILS.length)] + " " + (1 + random.nextInt(999));
+            entries.add(new SuggestIndex.Entry("product", Long.toString(i + 1), name, 1 + random.nextInt(500)));
+        }
+        index = new SuggestIndex();
+        index.replace(entries);
+    }
+
+    @Benchmark
+    public List<SuggestionDTO> suggest() {
+        return index.suggest(prefix, 8);
+    }
+
+    @Benchmark
+    public SuggestIndex build() {
+        SuggestIndex rebuilt = new SuggestIndex();
+        rebuilt.replace(entries);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.dto.ProductDTO;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Tamaño y tiempo de codificar/decodificar el catálogo en cada formato que negocian los controllers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WireFormatBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<ProductDTO> products;
+    private byte[] encoded;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Wire {
+        public long wireBytes;
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        ObjectMapper mapper = JacksonBenchmark.applicationMapper(factory, true);
+        TypeReference<List<ProductDTO>> type = new TypeReference<>() {};
+        writer = mapper.writerFor(type);
+        reader = mapper.readerFor(type);
+        products = SampleData.products(size);
+        encoded = writer.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] encode(Wire wire) throws IOException {
+        byte[] body = writer.writeValueAsBytes(products);
+        wire.wireBytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public List<ProductDTO> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+}
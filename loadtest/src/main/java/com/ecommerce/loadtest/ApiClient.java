@@ -0,0 +1,68 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// Cliente HTTP mínimo que mide cada llamada y la registra bajo el nombre del paso
+final class ApiClient {
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+
+    ApiClient(String baseUrl, LatencyRecorder recorder) {
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+    }
+
+    JsonNode get(String step, String path, String token) throws IOException, InterruptedException {
+        return send(step, request(path, token).GET().build());
+    }
+
+    JsonNode post(String step, String path, String token, Object body) throws IOException, InterruptedException {
+        return send(step, request(path, token)
+                .header("Content-Type", "application/json")
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    // Devuelve null si la respuesta no es 2xx o la llamada falla por I/O (conexión rechazada o
+    // cortada, timeout): queda contada como error del paso y la prueba sigue
+    private JsonNode send(String step, HttpRequest request) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.error(step);
+            return null;
+        }
+        recorder.record(step, (System.nanoTime() - start) / 1000);
+        if (response.statusCode() / 100 != 2) {
+            recorder.error(step);
+            return null;
+        }
+        byte[] body = response.body();
+        return body.length == 0 ? mapper.nullNode() : mapper.readTree(body);
+    }
+}
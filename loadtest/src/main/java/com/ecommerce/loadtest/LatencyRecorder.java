@@ -0,0 +1,70 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencias por paso (en microsegundos) con HdrHistogram; seguro para varios hilos
+final class LatencyRecorder {
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String step, long micros) {
+        recorders.computeIfAbsent(step, key -> new Recorder(3)).recordValue(Math.max(1, micros));
+    }
+
+    void error(String step) {
+        errors.computeIfAbsent(step, key -> new LongAdder()).increment();
+    }
+
+    // Descarta lo medido hasta ahora (fin del calentamiento)
+    void reset() {
+        recorders.values().forEach(Recorder::getIntervalHistogram);
+        errors.clear();
+    }
+
+    void report(String scenario, double seconds, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((step, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                histograms.put(step, histogram);
+            }
+        });
+        // Pasos en los que todas las llamadas fallaron por I/O: sin latencias, solo errores
+        for (String step : errors.keySet()) {
+            histograms.putIfAbsent(step, new Histogram(3));
+        }
+
+        System.out.printf("%n== %s (%.0f s) ==%n", scenario, seconds);
+        System.out.printf("%-16s %10s %10s %9s %9s %9s %9s %8s%n",
+                "paso", "total", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errores");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            LongAdder stepErrors = errors.get(entry.getKey());
+            System.out.printf("%-16s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %8d%n",
+                    entry.getKey(), histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(95) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0, histogram.getMaxValue() / 1000.0,
+                    stepErrors == null ? 0 : stepErrors.sum());
+
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            Path file = outputDir.resolve(scenario + "-" + entry.getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+}
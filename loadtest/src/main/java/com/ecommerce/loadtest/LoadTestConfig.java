@@ -0,0 +1,48 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Opciones --clave=valor de la línea de comandos
+final class LoadTestConfig {
+
+    final String target;
+    final String scenarios;
+    // Uno o más niveles (--concurrency=16,64,256): cada escenario se corre una vez por nivel
+    final int[] concurrencyLevels;
+    final int warmupSeconds;
+    final int durationSeconds;
+    final int products;
+    final int users;
+    final String outputDir;
+
+    private LoadTestConfig(Map<String, String> options) {
+        target = options.getOrDefault("target", "");
+        scenarios = options.getOrDefault("scenarios", "shop,login");
+        concurrencyLevels = Arrays.stream(options.getOrDefault("concurrency", "16").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        products = Integer.parseInt(options.getOrDefault("products", "200"));
+        users = Integer.parseInt(options.getOrDefault("users", "16"));
+        outputDir = options.getOrDefault("output", "target/loadtest");
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido (se espera --clave=valor): " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestConfig(options);
+    }
+
+    boolean embedded() {
+        return target.isBlank();
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.Application;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Generador de carga de lazo cerrado: cada hilo repite su recorrido sin pausa entre iteraciones.
+// Sin --target arranca la aplicación en el mismo proceso con el perfil dev (H2 en memoria).
+// Escenarios: shop, login, catalog-blocking (/api/products) y catalog-reactive (/api/reactive/products);
+// con varios niveles de concurrencia se ve cómo escala cada uno con la cantidad de conexiones.
+//
+// Uso: java -jar loadtest/target/loadtest.jar [--target=http://host:8080] [--scenarios=shop,login]
+//      [--concurrency=16,64,256] [--warmup=5] [--duration=30] [--products=200] [--users=16] [--output=target/loadtest]
+// En shop cada hilo usa su propio usuario: si --users es menor que la concurrencia máxima se crean los que faltan.
+public class LoadTestMain {
+
+    private static final String ADMIN_EMAIL = "admin@ecommerce.com";
+    private static final String ADMIN_PASSWORD = "admin123";
+    private static final String USER_PASSWORD = "loadtest123";
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.target;
+        if (config.embedded()) {
+            // Como argumentos y no como propiedades por defecto, para que prevalezcan sobre application.properties
+            context = new SpringApplicationBuilder(Application.class)
+                    .profiles("dev")
+                    .run("--server.port=0",
+                            "--logging.level.root=WARN",
+                            "--app.query-stats.expose-headers=false",
+                            // La prueba mide el servicio, no los límites que lo protegen
+                            "--app.rate-limit.enabled=false",
+                            "--app.load-shedding.enabled=false");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            LatencyRecorder seedRecorder = new LatencyRecorder();
+            ApiClient seedClient = new ApiClient(baseUrl, seedRecorder);
+            List<Long> productIds = seedProducts(seedClient, config.products);
+            List<String> emails = seedUsers(seedClient, userCount(config));
+            System.out.printf("Objetivo %s: %d productos, %d usuarios%n", baseUrl, productIds.size(), emails.size());
+
+            for (String scenario : config.scenarios.split(",")) {
+                for (int concurrency : config.concurrencyLevels) {
+                    runScenario(scenario.trim(), concurrency, config, baseUrl, productIds, emails);
+                }
+            }
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static void runScenario(String scenario, int concurrency, LoadTestConfig config, String baseUrl,
+                                    List<Long> productIds, List<String> emails) throws Exception {
+        LatencyRecorder recorder = new LatencyRecorder();
+        ApiClient client = new ApiClient(baseUrl, recorder);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.warmupSeconds + config.durationSeconds);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            String email = emails.get(i % emails.size());
+            workers.add(executor.submit(() -> {
+                // Solo el recorrido de compra necesita sesión; los de catálogo son públicos. Si el login
+                // falla (queda contado como error) se reintenta en la vuelta siguiente.
+                String token = null;
+                while (System.nanoTime() < deadline) {
+                    if ("shop".equals(scenario) && token == null) {
+                        token = tryLogin(client, email);
+                        continue;
+                    }
+                    switch (scenario) {
+                        case "shop" -> shop(client, token, productIds);
+                        case "login" -> tryLogin(client, email);
+                        case "catalog-blocking" -> client.get("products.list", "/api/products", null);
+                        case "catalog-reactive" -> client.get("reactive.list", "/api/reactive/products", null);
+                        default -> throw new IllegalArgumentException("Escenario desconocido: " + scenario);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(config.warmupSeconds));
+        recorder.reset();
+        long measureStart = System.nanoTime();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        executor.shutdown();
+
+        recorder.report(scenario + "-c" + concurrency, seconds, Path.of(config.outputDir));
+    }
+
+    // Recorrido de compra: catálogo, detalle, añadir al carrito, ver carrito y checkout
+    private static void shop(ApiClient client, String token, List<Long> productIds) throws Exception {
+        Long productId = productIds.get(ThreadLocalRandom.current().nextInt(productIds.size()));
+        client.get("products.list", "/api/products", null);
+        client.get("products.get", "/api/products/" + productId, token);
+        client.post("cart.add", "/api/cart/add", token, Map.of("productId", productId, "quantity", 1));
+        client.get("cart.get", "/api/cart", token);
+        client.post("cart.checkout", "/api/cart/checkout", token, null);
+    }
+
+    private static String login(ApiClient client, String email) throws Exception {
+        String token = tryLogin(client, email);
+        if (token == null) {
+            throw new IllegalStateException("No se pudo iniciar sesión como " + email);
+        }
+        return token;
+    }
+
+    // null si el login falló
+    private static String tryLogin(ApiClient client, String email) throws Exception {
+        String password = ADMIN_EMAIL.equals(email) ? ADMIN_PASSWORD : USER_PASSWORD;
+        JsonNode response = client.post("auth.login", "/api/auth/login", null,
+                Map.of("email", email, "password", password));
+        return response == null ? null : response.get("token").asText();
+    }
+
+    // Dos hilos de shop con el mismo usuario comparten carrito y se pisan los checkouts
+    private static int userCount(LoadTestConfig config) {
+        int users = config.users;
+        if (Arrays.stream(config.scenarios.split(",")).anyMatch(scenario -> "shop".equals(scenario.trim()))) {
+            users = Math.max(users, Arrays.stream(config.concurrencyLevels).max().orElse(0));
+        }
+        return users;
+    }
+
+    // Productos con stock alto para que los checkouts no agoten el inventario durante la prueba
+    private static List<Long> seedProducts(ApiClient client, int count) throws Exception {
+        String token = login(client, ADMIN_EMAIL);
+        String[] categories = {"electronics", "clothing", "books", "home", "sports"};
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            JsonNode product = client.post("seed.product", "/api/products", token, Map.of(
+                    "name", "Producto de carga " + i,
+                    "description", "Producto generado para la prueba de carga",
+                    "price", 1000.0 + (i * 137) % 200000,
+                    "stock", 1_000_000,
+                    "category", categories[i % categories.length],
+                    "imageUrl", "https://example.com/loadtest/" + i + ".jpg"));
+            if (product == null) {
+                throw new IllegalStateException("No se pudo crear el producto de carga " + i);
+            }
+            ids.add(product.get("id").asLong());
+        }
+        return ids;
+    }
+
+    // Registra los usuarios si no existen; en un objetivo externo pueden venir de una ejecución anterior
+    private static List<String> seedUsers(ApiClient client, int count) throws Exception {
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "loadtest" + i + "@example.com";
+            client.post("seed.user", "/api/auth/register", null, Map.of(
+                    "username", "loadtest" + i,
+                    "email", email,
+                    "password", USER_PASSWORD,
+                    "firstName", "Carga",
+                    "lastName", "Usuario" + i));
+            emails.add(email);
+        }
+        return emails;
+    }
+}